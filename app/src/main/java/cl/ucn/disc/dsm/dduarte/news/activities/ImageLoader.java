@@ -0,0 +1,440 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.activities;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+import android.widget.ImageView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import net.openhft.hashing.LongHashFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import cl.ucn.disc.dsm.dduarte.news.R;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * The images of the news: download, disk cache, decode (downsampled to the size of the view) and
+ * memory cache, all out of the main thread.
+ * <p>
+ * The memory cache is bounded by bytes (the size of the bitmaps), the disk cache by the size of the
+ * files (the least used are deleted). Two requests of the same image share the download and the decode.
+ * The last requests are served first (the rows in the screen before the ones already gone) and the
+ * prefetch after all of them.
+ *
+ * @author Diego Duarte Diaz.
+ */
+public final class ImageLoader {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(ImageLoader.class);
+
+    /**
+     * The max size of the disk cache: 20 MB.
+     */
+    private static final long DISK_SIZE = 20 * 1024 * 1024;
+
+    /**
+     * The number of threads (download + decode).
+     */
+    private static final int THREADS = 3;
+
+    /**
+     * The image while loading (or without url).
+     */
+    private static final int PLACEHOLDER = R.mipmap.ic_launcher;
+
+    /**
+     * The hash of the url (name of the file).
+     */
+    private static final LongHashFunction XX = LongHashFunction.xx();
+
+    /**
+     * The bitmaps decoded (by url and size).
+     */
+    private final LruCache<String, Bitmap> memory;
+
+    /**
+     * The directory of the disk cache.
+     */
+    private final File directory;
+
+    /**
+     * The bytes used in disk (-1 = not calculated).
+     */
+    private long diskUsed = -1;
+
+    /**
+     * The temporal files older than this are from a previous process (millis).
+     */
+    private final long createdAt = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(1);
+
+    /**
+     * The client of the downloads.
+     */
+    private final OkHttpClient client = new OkHttpClient();
+
+    /**
+     * The requests in flight (by url and size).
+     */
+    private final Map<String, Job> inFlight = new HashMap<>();
+
+    /**
+     * The main thread.
+     */
+    private final Handler main = new Handler(Looper.getMainLooper());
+
+    /**
+     * The executor: the last request first (LIFO), the prefetch at the end (FIFO).
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * The Constructor.
+     *
+     * @param directory of the disk cache.
+     * @param memoryBytes the max size of the memory cache.
+     */
+    public ImageLoader(@NonNull File directory, int memoryBytes) {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalArgumentException("Can't create the directory: " + directory);
+        }
+        this.directory = directory;
+        this.memory = new LruCache<String, Bitmap>(memoryBytes) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return bitmap.getByteCount();
+            }
+        };
+
+        final AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(THREADS, THREADS, 30, TimeUnit.SECONDS,
+                new LinkedBlockingDeque<Runnable>() {
+                    @Override
+                    public boolean offer(Runnable runnable) {
+                        return runnable instanceof Job && ((Job) runnable).prefetch ? offerLast(runnable) : offerFirst(runnable);
+                    }
+                }, runnable -> {
+            Thread thread = new Thread(runnable, "news-images-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Show the image in the view (the placeholder while loading).
+     *
+     * @param url of the image (nullable).
+     * @param view to show it.
+     * @param size of the view (pixels).
+     */
+    public void load(@Nullable String url, @NonNull ImageView view, int size) {
+        view.setTag(R.id.in_iv_image, url);
+        if (url == null) {
+            view.setImageResource(PLACEHOLDER);
+            return;
+        }
+
+        // In memory: no wait
+        final Bitmap bitmap = memory.get(key(url, size));
+        if (bitmap != null) {
+            view.setImageBitmap(bitmap);
+            return;
+        }
+
+        view.setImageResource(PLACEHOLDER);
+        request(url, size, false).whenComplete((loaded, error) -> {
+            if (error != null) {
+                log.debug("Can't load the image {}: {}", url, error.getMessage());
+                return;
+            }
+            main.post(() -> {
+                // The view was recycled to another news
+                if (url.equals(view.getTag(R.id.in_iv_image))) {
+                    view.setImageBitmap(loaded);
+                }
+            });
+        });
+    }
+
+    /**
+     * Load the image into the memory (for the rows about to be shown).
+     *
+     * @param url of the image (nullable).
+     * @param size of the view (pixels).
+     */
+    public void prefetch(@Nullable String url, int size) {
+        if (url != null && memory.get(key(url, size)) == null) {
+            request(url, size, true);
+        }
+    }
+
+    /**
+     * The view isn't showing the image anymore.
+     *
+     * @param view recycled.
+     */
+    public void cancel(@NonNull ImageView view) {
+        view.setTag(R.id.in_iv_image, null);
+        view.setImageResource(PLACEHOLDER);
+    }
+
+    /**
+     * Download and decode the image, once by key (a prefetch waiting is moved to the front if the
+     * image is needed now).
+     */
+    private CompletableFuture<Bitmap> request(final String url, final int size, final boolean prefetch) {
+        final String key = key(url, size);
+        final Job job;
+        synchronized (inFlight) {
+            final Job running = inFlight.get(key);
+            if (running != null) {
+                if (!prefetch && running.prefetch && executor.getQueue().remove(running)) {
+                    running.prefetch = false;
+                    executor.getQueue().offer(running);
+                }
+                return running.future;
+            }
+            job = new Job(key, url, size, prefetch);
+            inFlight.put(key, job);
+        }
+
+        try {
+            executor.execute(job);
+        } catch (RejectedExecutionException ex) {
+            synchronized (inFlight) {
+                inFlight.remove(key);
+            }
+            job.future.completeExceptionally(ex);
+        }
+        return job.future;
+    }
+
+    /**
+     * @return the key of the memory cache.
+     */
+    private static String key(final String url, final int size) {
+        return size + "|" + url;
+    }
+
+    /**
+     * Get the file of the image, downloading it if isn't in the disk cache.
+     */
+    private File download(final String url) throws IOException {
+        final File file = new File(directory, Long.toHexString(XX.hashChars(url)));
+        if (file.isFile()) {
+            // Used: the last to delete
+            file.setLastModified(System.currentTimeMillis());
+            return file;
+        }
+
+        final Request request = new Request.Builder().url(url).build();
+        final File temp = new File(directory, file.getName() + ".tmp." + Thread.currentThread().getId());
+        try (Response response = client.newCall(request).execute()) {
+            final ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                throw new IOException("Error: " + response.code() + " --> " + url);
+            }
+            try (InputStream in = body.byteStream(); OutputStream out = new FileOutputStream(temp)) {
+                final byte[] buffer = new byte[8 * 1024];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+            }
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("Can't rename the image " + temp);
+        }
+        trim(file.length());
+        return file;
+    }
+
+    /**
+     * Delete the least used files if the disk cache is over the max size.
+     */
+    private synchronized void trim(final long added) {
+        // Without the temporal files (the downloads in progress)
+        final File[] files = directory.listFiles((dir, name) -> !name.contains(".tmp."));
+        if (files == null) {
+            return;
+        }
+        if (diskUsed < 0) {
+            deleteTemporal();
+            diskUsed = 0;
+            for (File f : files) {
+                diskUsed += f.length();
+            }
+        } else {
+            diskUsed += added;
+        }
+        if (diskUsed <= DISK_SIZE) {
+            return;
+        }
+
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (File f : files) {
+            if (diskUsed <= DISK_SIZE * 3 / 4) {
+                break;
+            }
+            final long length = f.length();
+            if (f.delete()) {
+                diskUsed -= length;
+            }
+        }
+    }
+
+    /**
+     * Delete the temporal files of the downloads interrupted in a previous process.
+     */
+    private void deleteTemporal() {
+        final File[] temporal = directory.listFiles((dir, name) -> name.contains(".tmp."));
+        if (temporal == null) {
+            return;
+        }
+        for (File f : temporal) {
+            if (f.lastModified() < createdAt && !f.delete()) {
+                log.warn("Can't delete the temporal file {}", f);
+            }
+        }
+    }
+
+    /**
+     * Decode the image downsampled to (at least) the size.
+     */
+    private static Bitmap decode(final File file, final int size) throws IOException {
+        // Only the size
+        final BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(file.getPath(), options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            file.delete();
+            throw new IOException("Not an image: " + file);
+        }
+
+        // The pixels
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = inSampleSize(options.outWidth, options.outHeight, size, size);
+        final Bitmap bitmap = BitmapFactory.decodeFile(file.getPath(), options);
+        if (bitmap == null) {
+            throw new IOException("Can't decode: " + file);
+        }
+        return bitmap;
+    }
+
+    /**
+     * The largest power of 2 that keeps the image bigger than the view.
+     *
+     * @param width of the image.
+     * @param height of the image.
+     * @param viewWidth of the view.
+     * @param viewHeight of the view.
+     * @return the inSampleSize.
+     */
+    static int inSampleSize(final int width, final int height, final int viewWidth, final int viewHeight) {
+        int sample = 1;
+        while (width / (sample * 2) >= viewWidth && height / (sample * 2) >= viewHeight) {
+            sample *= 2;
+        }
+        return sample;
+    }
+
+    /**
+     * The download and decode of one image.
+     */
+    private final class Job implements Runnable {
+
+        /**
+         * The key of the memory cache.
+         */
+        private final String key;
+
+        /**
+         * The url of the image.
+         */
+        private final String url;
+
+        /**
+         * The size of the view.
+         */
+        private final int size;
+
+        /**
+         * The bitmap shared by the requests.
+         */
+        private final CompletableFuture<Bitmap> future = new CompletableFuture<>();
+
+        /**
+         * True if nobody is waiting (the prefetch, changed only with the lock of inFlight).
+         */
+        private volatile boolean prefetch;
+
+        Job(final String key, final String url, final int size, final boolean prefetch) {
+            this.key = key;
+            this.url = url;
+            this.size = size;
+            this.prefetch = prefetch;
+        }
+
+        @Override
+        public void run() {
+            Bitmap bitmap = null;
+            Exception error = null;
+            try {
+                bitmap = decode(download(url), size);
+                memory.put(key, bitmap);
+            } catch (IOException | RuntimeException ex) {
+                error = ex;
+            }
+            // Out of the in flight before completing (the next request start again)
+            synchronized (inFlight) {
+                inFlight.remove(key);
+            }
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(bitmap);
+            }
+        }
+    }
+}
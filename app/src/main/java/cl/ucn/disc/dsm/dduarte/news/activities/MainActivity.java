@@ -12,26 +12,33 @@
 
 package cl.ucn.disc.dsm.dduarte.news.activities;
 
-import android.os.AsyncTask;
 import android.os.Bundle;
 import android.view.Menu;
 import android.widget.ListView;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.app.AppCompatDelegate;
 import androidx.recyclerview.widget.DividerItemDecoration;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
+import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 
 import com.mikepenz.fastadapter.FastAdapter;
-import com.mikepenz.fastadapter.adapters.ModelAdapter;
+import com.mikepenz.fastadapter.adapters.ItemAdapter;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 
 import cl.ucn.disc.dsm.dduarte.news.R;
+import cl.ucn.disc.dsm.dduarte.news.metrics.Metrics;
 import cl.ucn.disc.dsm.dduarte.news.model.News;
-import cl.ucn.disc.dsm.dduarte.news.services.ContractImplNewsApi;
-import cl.ucn.disc.dsm.dduarte.news.services.Contracts;
+import cl.ucn.disc.dsm.dduarte.news.services.NewsPager;
 
 ;
 
@@ -41,11 +48,66 @@ import cl.ucn.disc.dsm.dduarte.news.services.Contracts;
  */
 public class MainActivity extends AppCompatActivity {
 
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(MainActivity.class);
+
     /**
      * The ListView.
      */
     protected ListView listView;
 
+    /**
+     * The size of the page of news.
+     */
+    private static final int PAGE_SIZE = 30;
+
+    /**
+     * Load the next page when the last visible row is this close to the end.
+     */
+    private static final int PREFETCH_DISTANCE = 10;
+
+    /**
+     * The number of rows after the last visible to prefetch the images.
+     */
+    private static final int PREFETCH_IMAGES = 6;
+
+    /**
+     * The Application (the local news, the sync and the NewsApi).
+     */
+    private NewsApplication app;
+
+    /**
+     * The retrieveNews of this instance.
+     */
+    private CompletableFuture<List<News>> retrieveNews;
+
+    /**
+     * The pager of the next pages of news.
+     */
+    private NewsPager pager;
+
+    /**
+     * The items of the list.
+     */
+    private ItemAdapter<NewsItem> newsAdapter;
+
+    /**
+     * The FastAdapter of the RecyclerView.
+     */
+    private FastAdapter<NewsItem> fastAdapter;
+
+    /**
+     * The pull to refresh.
+     */
+    private SwipeRefreshLayout swipeRefreshLayout;
+
+    /**
+     * The creation of the activity (0 = the first row was already measured).
+     */
+    private long createdAt;
+
     /**
      * OnCreate.
      * @param savedInstanceState used to reload the app.
@@ -53,14 +115,16 @@ public class MainActivity extends AppCompatActivity {
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        createdAt = Metrics.start();
         setContentView(R.layout.activity_main);
+        app = NewsApplication.get(this);
 
         //The toolbar
         this.setSupportActionBar(findViewById(R.id.am_t_toolbar));
 
         // The FastAdapter
-        ModelAdapter<News, NewsItem> newsAdapter = new ModelAdapter<>(NewsItem::new);
-        FastAdapter<NewsItem> fastAdapter = FastAdapter.with(newsAdapter);
+        newsAdapter = new ItemAdapter<>();
+        fastAdapter = FastAdapter.with(newsAdapter);
         fastAdapter.withSelectable(false);
 
         // The Recycler view
@@ -69,24 +133,207 @@ public class MainActivity extends AppCompatActivity {
         recyclerView.setLayoutManager(new LinearLayoutManager(this));
         recyclerView.addItemDecoration(new DividerItemDecoration(this, DividerItemDecoration.VERTICAL));
 
-        //Get the news in the background thread
-        AsyncTask.execute(()->{
-            //Using the contracts to get the news
-            Contracts contracts = new ContractImplNewsApi("ffb8d49a73ad48b88608e103b0537e01");
-            //Get the News from NewsApi (internet)
-            List<News> listNews = contracts.retrieveNews(30);
-            /*//Build the simple adapter to show the list of news (string)
-            ArrayAdapter<String> adapter = new ArrayAdapter(
-                    this, android.R.layout.simple_list_item_1, listNews
-            );*/
-            //Set the adapter!
-            runOnUiThread(() ->{
-                newsAdapter.add(listNews);
+        // The next pages: each news is added as soon as is decoded (the item is built in background)
+        NewsPager.Callback callback = new NewsPager.Callback() {
+            @Override
+            public void onNews(News news) {
+                NewsItem item = new NewsItem(news);
+                runOnUiThread(() -> newsAdapter.add(item));
+            }
+
+            @Override
+            public void onPageLoaded(int page, boolean hasMore) {
+                log.debug("Page {} loaded, more: {}.", page, hasMore);
+            }
+
+            @Override
+            public void onError(RuntimeException exception) {
+                log.error("Can't load the page", exception);
+            }
+        };
+
+        // Load (prefetch) the next page before reaching the end of the list and the images of the next rows
+        final int imageSize = getResources().getDimensionPixelSize(R.dimen.thumbnail);
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView view, int dx, int dy) {
+                LinearLayoutManager layoutManager = (LinearLayoutManager) view.getLayoutManager();
+                final int last = layoutManager.findLastVisibleItemPosition();
+                if (pager != null && dy > 0 && last >= layoutManager.getItemCount() - PREFETCH_DISTANCE) {
+                    pager.loadNext(callback);
+                }
+                if (dy > 0 && last != RecyclerView.NO_POSITION) {
+                    final int end = Math.min(last + PREFETCH_IMAGES, newsAdapter.getAdapterItemCount() - 1);
+                    for (int i = last + 1; i <= end; i++) {
+                        app.getImages().prefetch(newsAdapter.getAdapterItem(i).getModel().getUrlImage(), imageSize);
+                    }
+                }
+            }
+        });
+
+        // Pull to refresh: sync now with the NewsApi and show only the differences
+        swipeRefreshLayout = findViewById(R.id.am_swl_refresh);
+        swipeRefreshLayout.setOnRefreshListener(() -> {
+            if (pager != null) {
+                pager.close();
+                pager = null;
+            }
+            // The next load goes to the store (the cached news only if it fails)
+            app.getCache().invalidate();
+            sync();
+        });
+
+        // The news of the last session (memory-mapped, without JSON), read and built in background
+        app.getSnapshot().restoreAsync().thenAccept(last -> {
+            if (last.isEmpty()) {
+                return;
+            }
+            List<NewsItem> items = NewsItem.of(last);
+            runOnUiThread(() -> {
+                // The local news were shown before
+                if (isDestroyed() || !newsAdapter.getAdapterItems().isEmpty()) {
+                    return;
+                }
+                newsAdapter.set(items);
+                firstRow();
             });
+        });
+
+        //Get the local News in background (shared with the previous instance if still in flight)
+        load(true);
+    }
 
+    /**
+     * Sync the local news with the NewsApi (in background) and then show them.
+     */
+    private void sync() {
+        app.getSync().request().whenComplete((saved, error) -> {
+            if (error != null) {
+                log.error("Can't sync the news", error);
+            }
+            runOnUiThread(() -> {
+                if (!isDestroyed()) {
+                    load(false);
+                }
+            });
         });
     }
 
+    /**
+     * Retrieve the first page of local news and show it.
+     * @param syncIfEmpty true to sync if there are no local news (first run).
+     */
+    private void load(final boolean syncIfEmpty) {
+        retrieveNews = app.getContracts().retrieveNews(PAGE_SIZE);
+        retrieveNews.whenComplete((listNews, error) -> {
+            if (error != null) {
+                if (!(error instanceof CancellationException)) {
+                    log.error("Can't retrieve the news", error);
+                }
+                runOnUiThread(() -> swipeRefreshLayout.setRefreshing(false));
+                return;
+            }
+
+            // First run: nothing local yet
+            if (listNews.isEmpty() && syncIfEmpty) {
+                runOnUiThread(() -> {
+                    if (!isDestroyed()) {
+                        swipeRefreshLayout.setRefreshing(true);
+                        sync();
+                    }
+                });
+                return;
+            }
+
+            // Build the items (format the dates) out of the main thread
+            List<NewsItem> items = NewsItem.of(listNews);
+
+            //Set the adapter!
+            runOnUiThread(() -> show(listNews, items));
+        });
+    }
+
+    /**
+     * Show the items (in the main thread), dispatching only the differences with the current ones.
+     * @param listNews retrieved.
+     * @param items to show.
+     */
+    private void show(final List<News> listNews, final List<NewsItem> items) {
+        if (isDestroyed()) {
+            return;
+        }
+
+        // Nothing to compare
+        final List<NewsItem> current = new ArrayList<>(newsAdapter.getAdapterItems());
+        if (current.isEmpty()) {
+            newsAdapter.set(items);
+            shown(listNews);
+            return;
+        }
+
+        // The diff in background, the dispatch in the main thread
+        CompletableFuture.supplyAsync(() -> NewsItemDiff.calculate(current, items)).thenAccept(diff -> runOnUiThread(() -> {
+            if (isDestroyed()) {
+                return;
+            }
+            // The pager added news in the meantime: calculate again
+            final List<NewsItem> adapterItems = newsAdapter.getAdapterItems();
+            if (adapterItems.size() != current.size()) {
+                show(listNews, items);
+                return;
+            }
+            adapterItems.clear();
+            adapterItems.addAll(items);
+            diff.dispatchUpdatesTo(NewsItemDiff.to(fastAdapter));
+            shown(listNews);
+        }));
+    }
+
+    /**
+     * Measure the time to the first row: after the layout pass of the new items (only once).
+     */
+    private void firstRow() {
+        if (createdAt == 0) {
+            return;
+        }
+        final long start = createdAt;
+        createdAt = 0;
+        findViewById(R.id.am_rv_news).post(() -> Metrics.record(Metrics.FIRST_ROW, start));
+    }
+
+    /**
+     * The first page is shown: start the pager from the second one.
+     * @param listNews shown.
+     */
+    private void shown(final List<News> listNews) {
+        swipeRefreshLayout.setRefreshing(false);
+        if (!listNews.isEmpty()) {
+            firstRow();
+        }
+        if (pager != null) {
+            pager.close();
+        }
+        pager = app.getNewsApi().pager("general", PAGE_SIZE);
+        pager.skipTo(2, listNews);
+    }
+
+    /**
+     * OnDestroy: release the pager and the retrieveNews.
+     */
+    @Override
+    protected void onDestroy() {
+        if (pager != null) {
+            pager.close();
+        }
+        // Detach this instance (no leak), the request continues for the next one
+        retrieveNews.cancel(false);
+        // Leaving for real: abort the request
+        if (isFinishing()) {
+            app.getContracts().cancel(PAGE_SIZE);
+        }
+        super.onDestroy();
+    }
+
     //TODO: Arreglar el boton para cambiar el tema
     @Override
     public boolean onCreateOptionsMenu(Menu menu) {
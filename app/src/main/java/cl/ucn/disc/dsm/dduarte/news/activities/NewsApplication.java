@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.activities;
+
+import android.app.Application;
+import android.content.Context;
+
+import com.jakewharton.threetenabp.AndroidThreeTen;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+import cl.ucn.disc.dsm.dduarte.news.BuildConfig;
+import cl.ucn.disc.dsm.dduarte.news.metrics.Metrics;
+import cl.ucn.disc.dsm.dduarte.news.metrics.MetricsRegistryImpl;
+import cl.ucn.disc.dsm.dduarte.news.services.ContractImplNewsApi;
+import cl.ucn.disc.dsm.dduarte.news.services.ContractsAsync;
+import cl.ucn.disc.dsm.dduarte.news.services.ContractsImplCache;
+import cl.ucn.disc.dsm.dduarte.news.services.ContractsImplFile;
+import cl.ucn.disc.dsm.dduarte.news.services.ContractsImplSnapshot;
+import cl.ucn.disc.dsm.dduarte.news.services.NewsApiScheduler;
+import cl.ucn.disc.dsm.dduarte.news.services.NewsSync;
+
+/**
+ * The Application: the components shared by the activities and the sync.
+ * <p>
+ * The activities read the local news (the store, by the cache), the {@link NewsSyncWorker} fill it
+ * from the NewsApi (by the cache too: the saves clear it).
+ *
+ * @author Diego Duarte Diaz.
+ */
+public final class NewsApplication extends Application {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(NewsApplication.class);
+
+    /**
+     * The number of news by sync.
+     */
+    public static final int SYNC_SIZE = 100;
+
+    /**
+     * The snapshot of the metrics (in the files directory).
+     */
+    public static final String METRICS_FILE = "metrics.json";
+
+    /**
+     * The NewsApi.
+     */
+    private ContractImplNewsApi newsApi;
+
+    /**
+     * The local news.
+     */
+    private ContractsImplFile store;
+
+    /**
+     * The cache of the local news.
+     */
+    private ContractsImplCache cache;
+
+    /**
+     * The last news shown (for the first frame of the next launch).
+     */
+    private ContractsImplSnapshot snapshot;
+
+    /**
+     * The local news (async).
+     */
+    private ContractsAsync contracts;
+
+    /**
+     * The sync NewsApi -> store.
+     */
+    private NewsSync sync;
+
+    /**
+     * The images of the news.
+     */
+    private ImageLoader images;
+
+    /**
+     * @param context to use.
+     * @return the Application.
+     */
+    public static NewsApplication get(final Context context) {
+        return (NewsApplication) context.getApplicationContext();
+    }
+
+    /**
+     * OnCreate: build the components (without reading the disk) and schedule the sync.
+     */
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        AndroidThreeTen.init(this);
+
+        // The metrics only in the debug builds (no-op in release)
+        if (BuildConfig.DEBUG) {
+            Metrics.setRegistry(new MetricsRegistryImpl());
+        }
+
+        this.newsApi = new ContractImplNewsApi("ffb8d49a73ad48b88608e103b0537e01", new File(getCacheDir(), "http"));
+        try {
+            this.store = new ContractsImplFile(new File(getFilesDir(), "news.db"));
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+        this.cache = new ContractsImplCache(store, new File(getCacheDir(), "news"));
+        this.snapshot = new ContractsImplSnapshot(cache, new File(getFilesDir(), "news.snapshot"));
+        this.contracts = new ContractsAsync(snapshot);
+        // Same quota, the activity goes first
+        this.sync = new NewsSync(newsApi.withPriority(NewsApiScheduler.Priority.BACKGROUND), cache, SYNC_SIZE);
+        // 1/8 of the heap for the bitmaps
+        this.images = new ImageLoader(new File(getCacheDir(), "images"), (int) (Runtime.getRuntime().maxMemory() / 8));
+
+        NewsSyncWorker.schedule(this);
+    }
+
+    /**
+     * The app goes to background: export the snapshot of the metrics (to compare releases).
+     *
+     * @param level of the trim.
+     */
+    @Override
+    public void onTrimMemory(final int level) {
+        super.onTrimMemory(level);
+        if (level == TRIM_MEMORY_UI_HIDDEN && Metrics.getRegistry() != Metrics.NOOP) {
+            final String json = Metrics.toJson();
+            CompletableFuture.runAsync(() -> {
+                try (Writer out = new OutputStreamWriter(new FileOutputStream(new File(getFilesDir(), METRICS_FILE)), StandardCharsets.UTF_8)) {
+                    out.write(json);
+                } catch (IOException ex) {
+                    log.warn("Can't write the metrics", ex);
+                }
+            });
+        }
+    }
+
+    /**
+     * @return the NewsApi.
+     */
+    public ContractImplNewsApi getNewsApi() {
+        return newsApi;
+    }
+
+    /**
+     * @return the cache of the local news.
+     */
+    public ContractsImplCache getCache() {
+        return cache;
+    }
+
+    /**
+     * @return the last news shown.
+     */
+    public ContractsImplSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @return the local news (async).
+     */
+    public ContractsAsync getContracts() {
+        return contracts;
+    }
+
+    /**
+     * @return the sync NewsApi -> store.
+     */
+    public NewsSync getSync() {
+        return sync;
+    }
+
+    /**
+     * @return the images of the news.
+     */
+    public ImageLoader getImages() {
+        return images;
+    }
+}
@@ -13,71 +13,172 @@
 package cl.ucn.disc.dsm.dduarte.news.activities;
 
 import android.view.View;
+import android.widget.ImageView;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 import com.mikepenz.fastadapter.items.ModelAbstractItem;
 import org.threeten.bp.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Objects;
 import cl.ucn.disc.dsm.dduarte.news.R;
 import cl.ucn.disc.dsm.dduarte.news.model.News;
 
 /**
  * The NewsItem to show in the list.
+ * <p>
+ * The texts are computed when the item is built (in background), the bind only set them.
  *
  * @author Diego Duarte Diaz.
  */
 public final class NewsItem extends ModelAbstractItem<News, NewsItem, NewsItem.ViewHolder> {
     /**
- 	* The ZonedDateTime formatter.
- 	*/
+     * The ZonedDateTime formatter.
+     */
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("HH:mm d.LLL.yyyy");
 
     /**
- 	* The Constructor.
- 	* @param news to show.
- 	*/
+     * The fields of the view (payload of the partial bind).
+     */
+    public enum Field {
+        TITLE, AUTHOR, SOURCE, DESCRIPTION, PUBLISHED_AT, IMAGE
+    }
+
+    /**
+     * The publishedAt formatted.
+     */
+    private final String publishedAt;
+
+    /**
+     * The Constructor (call it out of the main thread).
+     * @param news to show.
+     */
     public NewsItem(@NonNull News news) {
         super(news);
+        this.publishedAt = FORMATTER.format(news.getPublishedAt());
+        this.withIdentifier(news.getLongId());
+    }
+
+    /**
+     * Build the items (call it out of the main thread).
+     * @param news to show.
+     * @return the list of NewsItem.
+     */
+    public static List<NewsItem> of(@NonNull List<News> news) {
+        final List<NewsItem> items = new ArrayList<>(news.size());
+        for (News n : news) {
+            items.add(new NewsItem(n));
+        }
+        return items;
+    }
+
+    /**
+     * The fields changed between two versions of the same news.
+     * @param oldItem shown.
+     * @param newItem to show.
+     * @return the fields to bind again (empty if equals).
+     */
+    public static EnumSet<Field> diff(@NonNull NewsItem oldItem, @NonNull NewsItem newItem) {
+        final News o = oldItem.getModel();
+        final News n = newItem.getModel();
+        final EnumSet<Field> fields = EnumSet.noneOf(Field.class);
+        if (!Objects.equals(o.getTitle(), n.getTitle())) {
+            fields.add(Field.TITLE);
+        }
+        if (!Objects.equals(o.getAuthor(), n.getAuthor())) {
+            fields.add(Field.AUTHOR);
+        }
+        if (!Objects.equals(o.getSource(), n.getSource())) {
+            fields.add(Field.SOURCE);
+        }
+        if (!Objects.equals(o.getDescription(), n.getDescription())) {
+            fields.add(Field.DESCRIPTION);
+        }
+        if (!oldItem.publishedAt.equals(newItem.publishedAt)) {
+            fields.add(Field.PUBLISHED_AT);
+        }
+        if (!Objects.equals(o.getUrlImage(), n.getUrlImage())) {
+            fields.add(Field.IMAGE);
+        }
+        return fields;
     }
+
     /**
- 	* @param view used to build the ViewHolder.
- 	* @return the ViewHolder to the views.
- 	*/
+     * @param view used to build the ViewHolder.
+     * @return the ViewHolder to the views.
+     */
     @NonNull
-	@Override
-	public ViewHolder getViewHolder(@NonNull View view) {
+    @Override
+    public ViewHolder getViewHolder(@NonNull View view) {
         return new ViewHolder(view);
     }
+
     @Override
-	public int getType() {
+    public int getType() {
         return R.id.am_rv_news;
     }
+
     /**
- 	* @return the layout to use.
- 	*/
+     * @return the layout to use.
+     */
     @Override
-	public int getLayoutRes() {
+    public int getLayoutRes() {
         return R.layout.item_news;
     }
 
     /**
- 	* Bind the holder with the model.
-     * @param holder	to use.
-     * @param payloads ?.
+     * Bind the holder with the model.
+     * @param holder to use.
+     * @param payloads the {@link Field}s changed (empty = all).
      */
-
     @Override
     public void bindView(@NonNull ViewHolder holder, @NonNull List<Object> payloads) {
- 	    super.bindView(holder, payloads);
+        super.bindView(holder, payloads);
 
- 	    // Setting the holder
-        holder.title.setText(getModel().getTitle());
- 	    holder.author.setText(getModel().getAuthor());
- 	    holder.source.setText(getModel().getSource());
- 	    holder.description.setText(getModel().getDescription());
- 	    holder.publishedAt.setText(FORMATTER.format(getModel().getPublishedAt()));
+        // Full bind
+        if (payloads.isEmpty()) {
+            for (Field field : Field.values()) {
+                bind(holder, field);
+            }
+            return;
+        }
 
+        // Partial bind: only the fields changed
+        for (Object payload : payloads) {
+            if (payload instanceof EnumSet) {
+                for (Object field : (EnumSet<?>) payload) {
+                    bind(holder, (Field) field);
+                }
+            }
+        }
+    }
+
+    /**
+     * Set one field in the holder.
+     */
+    private void bind(@NonNull ViewHolder holder, @NonNull Field field) {
+        switch (field) {
+            case TITLE:
+                holder.title.setText(getModel().getTitle());
+                break;
+            case AUTHOR:
+                holder.author.setText(getModel().getAuthor());
+                break;
+            case SOURCE:
+                holder.source.setText(getModel().getSource());
+                break;
+            case DESCRIPTION:
+                holder.description.setText(getModel().getDescription());
+                break;
+            case PUBLISHED_AT:
+                holder.publishedAt.setText(publishedAt);
+                break;
+            case IMAGE:
+                holder.images.load(getModel().getUrlImage(), holder.image, holder.imageSize);
+                break;
+        }
     }
 
     /**
@@ -89,10 +190,11 @@ public final class NewsItem extends ModelAbstractItem<News, NewsItem, NewsItem.V
     public void unbindView(@NonNull ViewHolder holder) {
         super.unbindView(holder);
         holder.title.setText(null);
- 	    holder.author.setText(null);
- 	    holder.source.setText(null);
- 	    holder.description.setText(null);
- 	    holder.publishedAt.setText(null);
+        holder.author.setText(null);
+        holder.source.setText(null);
+        holder.description.setText(null);
+        holder.publishedAt.setText(null);
+        holder.images.cancel(holder.image);
     }
 
     /**
@@ -104,14 +206,20 @@ public final class NewsItem extends ModelAbstractItem<News, NewsItem, NewsItem.V
         protected TextView source;
         protected TextView description;
         protected TextView publishedAt;
+        protected ImageView image;
+        protected int imageSize;
+        protected ImageLoader images;
 
         public ViewHolder(@NonNull View view) {
             super(view);
- 	        this.title = view.findViewById(R.id.in_tv_title);
- 	        this.author = view.findViewById(R.id.in_tv_autor);
- 	        this.source = view.findViewById(R.id.in_tv_source);
- 	        this.description = view.findViewById(R.id.in_tv_description);
- 	        this.publishedAt = view.findViewById(R.id.in_tv_published_at);
+            this.title = view.findViewById(R.id.in_tv_title);
+            this.author = view.findViewById(R.id.in_tv_autor);
+            this.source = view.findViewById(R.id.in_tv_source);
+            this.description = view.findViewById(R.id.in_tv_description);
+            this.publishedAt = view.findViewById(R.id.in_tv_published_at);
+            this.image = view.findViewById(R.id.in_iv_image);
+            this.imageSize = view.getResources().getDimensionPixelSize(R.dimen.thumbnail);
+            this.images = NewsApplication.get(view.getContext()).getImages();
         }
     }
 }
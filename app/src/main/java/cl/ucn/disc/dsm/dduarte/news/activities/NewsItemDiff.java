@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.activities;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+import com.mikepenz.fastadapter.FastAdapter;
+
+import java.util.List;
+
+/**
+ * The difference between two lists of {@link NewsItem} (by the id of the news).
+ * <p>
+ * The diff is calculated in background, then only the inserted, removed, moved or changed rows
+ * are dispatched to the {@link FastAdapter} (in the main thread).
+ *
+ * @author Diego Duarte Diaz.
+ */
+final class NewsItemDiff extends DiffUtil.Callback {
+
+    /**
+     * The items shown.
+     */
+    private final List<NewsItem> oldItems;
+
+    /**
+     * The items to show.
+     */
+    private final List<NewsItem> newItems;
+
+    /**
+     * The Constructor.
+     *
+     * @param oldItems shown (a copy, not the list of the adapter).
+     * @param newItems to show.
+     */
+    NewsItemDiff(@NonNull List<NewsItem> oldItems, @NonNull List<NewsItem> newItems) {
+        this.oldItems = oldItems;
+        this.newItems = newItems;
+    }
+
+    /**
+     * Calculate the diff (call it out of the main thread).
+     *
+     * @param oldItems shown (a copy, not the list of the adapter).
+     * @param newItems to show.
+     * @return the result to dispatch.
+     */
+    static DiffUtil.DiffResult calculate(@NonNull List<NewsItem> oldItems, @NonNull List<NewsItem> newItems) {
+        return DiffUtil.calculateDiff(new NewsItemDiff(oldItems, newItems), true);
+    }
+
+    /**
+     * @param fastAdapter to notify.
+     * @return the callback that dispatch the updates to the adapter.
+     */
+    static ListUpdateCallback to(@NonNull FastAdapter<NewsItem> fastAdapter) {
+        return new ListUpdateCallback() {
+            @Override
+            public void onInserted(int position, int count) {
+                fastAdapter.notifyAdapterItemRangeInserted(position, count);
+            }
+
+            @Override
+            public void onRemoved(int position, int count) {
+                fastAdapter.notifyAdapterItemRangeRemoved(position, count);
+            }
+
+            @Override
+            public void onMoved(int fromPosition, int toPosition) {
+                fastAdapter.notifyAdapterItemMoved(fromPosition, toPosition);
+            }
+
+            @Override
+            public void onChanged(int position, int count, @Nullable Object payload) {
+                fastAdapter.notifyAdapterItemRangeChanged(position, count, payload);
+            }
+        };
+    }
+
+    @Override
+    public int getOldListSize() {
+        return oldItems.size();
+    }
+
+    @Override
+    public int getNewListSize() {
+        return newItems.size();
+    }
+
+    @Override
+    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+        return oldItems.get(oldItemPosition).getIdentifier() == newItems.get(newItemPosition).getIdentifier();
+    }
+
+    @Override
+    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+        return NewsItem.diff(oldItems.get(oldItemPosition), newItems.get(newItemPosition)).isEmpty();
+    }
+
+    /**
+     * @return the {@link NewsItem.Field}s changed (the payload of the partial bind).
+     */
+    @Nullable
+    @Override
+    public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+        return NewsItem.diff(oldItems.get(oldItemPosition), newItems.get(newItemPosition));
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.activities;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+import cl.ucn.disc.dsm.dduarte.news.services.NewsSync;
+
+/**
+ * The periodic sync of the news in the device (WorkManager): one {@link NewsSync#sync()} by run.
+ * <p>
+ * The WorkManager retries with exponential backoff after an error (i.e. the non 2xx of the NewsApi).
+ *
+ * @author Diego Duarte Diaz.
+ */
+public final class NewsSyncWorker extends Worker {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(NewsSyncWorker.class);
+
+    /**
+     * The name of the periodic work.
+     */
+    private static final String NAME = "news-sync";
+
+    /**
+     * The Constructor (called by the WorkManager).
+     *
+     * @param context to use.
+     * @param params of the work.
+     */
+    public NewsSyncWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /**
+     * Schedule the periodic sync (once, with network).
+     *
+     * @param context to use.
+     */
+    public static void schedule(@NonNull Context context) {
+        final Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+        final PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(NewsSyncWorker.class,
+                NewsSync.DEFAULT_INTERVAL, TimeUnit.MILLISECONDS)
+                .setConstraints(constraints)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, NewsSync.DEFAULT_INITIAL_BACKOFF, TimeUnit.MILLISECONDS)
+                .build();
+        WorkManager.getInstance(context).enqueueUniquePeriodicWork(NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    /**
+     * Sync the news (in the thread of the WorkManager).
+     *
+     * @return success or retry.
+     */
+    @NonNull
+    @Override
+    public Result doWork() {
+        try {
+            final int saved = NewsApplication.get(getApplicationContext()).getSync().sync();
+            log.debug("Sync done, {} news saved.", saved);
+            return Result.success();
+        } catch (RuntimeException ex) {
+            log.warn("Can't sync the news (attempt {})", getRunAttemptCount(), ex);
+            return Result.retry();
+        }
+    }
+}
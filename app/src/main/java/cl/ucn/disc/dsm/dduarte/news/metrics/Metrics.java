@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.metrics;
+
+import cl.ucn.disc.dsm.dduarte.news.utils.Validation;
+
+/**
+ * The metrics of the app: the names and the current registry (no-op by default).
+ * <p>
+ * Usage: {@code long start = Metrics.start(); .. Metrics.record(Metrics.FETCH, start);}
+ *
+ * @author Diego Duarte Diaz.
+ */
+public final class Metrics {
+
+    /**
+     * Histogram: the http call to NewsApi (until the headers).
+     */
+    public static final String FETCH = "newsapi.fetch";
+
+    /**
+     * Histogram: the decode of the JSON body (by page).
+     */
+    public static final String DECODE = "json.decode";
+
+    /**
+     * Histogram: the conversion Article to News (by article).
+     */
+    public static final String CONVERT = "article.convert";
+
+    /**
+     * Histogram: the dedup and sort of the news of retrieveNews.
+     */
+    public static final String DEDUP_SORT = "news.dedupSort";
+
+    /**
+     * Histogram: from the creation of the activity to the first row shown.
+     */
+    public static final String FIRST_ROW = "ui.firstRow";
+
+    /**
+     * Counter: articles repaired (without author or description).
+     */
+    public static final String ARTICLE_REPAIRED = "article.repaired";
+
+    /**
+     * Counter: articles dropped (invalid).
+     */
+    public static final String ARTICLE_DROPPED = "article.dropped";
+
+    /**
+     * Counter: the hits of the cache of news.
+     */
+    public static final String CACHE_HIT = "cache.hit";
+
+    /**
+     * Counter: the stale hits of the cache of news (revalidated in background).
+     */
+    public static final String CACHE_STALE = "cache.stale";
+
+    /**
+     * Counter: the misses of the cache of news.
+     */
+    public static final String CACHE_MISS = "cache.miss";
+
+    /**
+     * The registry that ignore everything.
+     */
+    public static final MetricsRegistry NOOP = new MetricsRegistry() {
+        @Override
+        public void record(final String name, final long nanos) {
+            // Nothing here
+        }
+
+        @Override
+        public void increment(final String name, final long delta) {
+            // Nothing here
+        }
+
+        @Override
+        public String toJson() {
+            return "{}";
+        }
+    };
+
+    /**
+     * The current registry.
+     */
+    private static volatile MetricsRegistry registry = NOOP;
+
+    /**
+     * Utility class.
+     */
+    private Metrics() {
+        // Nothing here
+    }
+
+    /**
+     * @return the current registry.
+     */
+    public static MetricsRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * @param registry to use (NOOP to disable).
+     */
+    public static void setRegistry(final MetricsRegistry registry) {
+        Validation.notNull(registry, "registry");
+        Metrics.registry = registry;
+    }
+
+    /**
+     * @return the start of the measure (0 without registry, the clock isn't read).
+     */
+    public static long start() {
+        return registry == NOOP ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Record the latency since the start.
+     *
+     * @param name of the histogram.
+     * @param start from {@link #start()}.
+     */
+    public static void record(final String name, final long start) {
+        final MetricsRegistry current = registry;
+        if (current != NOOP && start != 0) {
+            current.record(name, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Increment the counter by one.
+     *
+     * @param name of the counter.
+     */
+    public static void increment(final String name) {
+        registry.increment(name, 1);
+    }
+
+    /**
+     * @return the snapshot of the metrics as JSON.
+     */
+    public static String toJson() {
+        return registry.toJson();
+    }
+}
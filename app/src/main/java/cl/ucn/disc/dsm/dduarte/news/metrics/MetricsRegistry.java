@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.metrics;
+
+/**
+ * The registry of the metrics (pluggable, see {@link Metrics#setRegistry(MetricsRegistry)}).
+ *
+ * @author Diego Duarte Diaz.
+ */
+public interface MetricsRegistry {
+
+    /**
+     * Record one latency in the histogram.
+     *
+     * @param name of the histogram.
+     * @param nanos the latency.
+     */
+    void record(String name, long nanos);
+
+    /**
+     * Increment the counter.
+     *
+     * @param name of the counter.
+     * @param delta to add.
+     */
+    void increment(String name, long delta);
+
+    /**
+     * @return the snapshot of all the metrics as JSON.
+     */
+    String toJson();
+}
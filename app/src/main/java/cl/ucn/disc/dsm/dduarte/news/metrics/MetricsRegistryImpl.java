@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.metrics;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import cl.ucn.disc.dsm.dduarte.news.utils.Validation;
+
+/**
+ * The registry in memory: counters and histograms of power of two buckets.
+ * <p>
+ * The percentiles are approximated by the upper bound of the bucket (max 2x of error), enough to
+ * compare two releases without the cost of keeping the samples.
+ *
+ * @author Diego Duarte Diaz.
+ */
+public final class MetricsRegistryImpl implements MetricsRegistry {
+
+    /**
+     * The counters by name.
+     */
+    private final ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    /**
+     * The histograms by name.
+     */
+    private final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    @Override
+    public void record(final String name, final long nanos) {
+        Validation.notNull(name, "name");
+        Histogram histogram = histograms.get(name);
+        if (histogram == null) {
+            histograms.putIfAbsent(name, new Histogram());
+            histogram = histograms.get(name);
+        }
+        histogram.record(nanos);
+    }
+
+    @Override
+    public void increment(final String name, final long delta) {
+        Validation.notNull(name, "name");
+        LongAdder counter = counters.get(name);
+        if (counter == null) {
+            counters.putIfAbsent(name, new LongAdder());
+            counter = counters.get(name);
+        }
+        counter.add(delta);
+    }
+
+    /**
+     * @param name of the counter.
+     * @return the value of the counter (0 if not found).
+     */
+    public long getCounter(final String name) {
+        final LongAdder counter = counters.get(name);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /**
+     * @param name of the histogram.
+     * @return the histogram (null if not found).
+     */
+    public Histogram getHistogram(final String name) {
+        return histograms.get(name);
+    }
+
+    /**
+     * The snapshot: {"counters": {name: value}, "histograms": {name: {count, min, max, mean, p50, p90, p99}}}
+     * sorted by name, the latencies in nanos.
+     *
+     * @return the JSON.
+     */
+    @Override
+    public String toJson() {
+        final StringWriter out = new StringWriter();
+        try (JsonWriter json = new JsonWriter(out)) {
+            json.beginObject();
+
+            json.name("counters").beginObject();
+            for (Map.Entry<String, LongAdder> entry : new TreeMap<>(counters).entrySet()) {
+                json.name(entry.getKey()).value(entry.getValue().sum());
+            }
+            json.endObject();
+
+            json.name("histograms").beginObject();
+            for (Map.Entry<String, Histogram> entry : new TreeMap<>(histograms).entrySet()) {
+                final Histogram histogram = entry.getValue();
+                json.name(entry.getKey()).beginObject()
+                        .name("count").value(histogram.getCount())
+                        .name("min").value(histogram.getMin())
+                        .name("max").value(histogram.getMax())
+                        .name("mean").value(histogram.getMean())
+                        .name("p50").value(histogram.getPercentile(50))
+                        .name("p90").value(histogram.getPercentile(90))
+                        .name("p99").value(histogram.getPercentile(99))
+                        .endObject();
+            }
+            json.endObject();
+
+            json.endObject();
+        } catch (IOException ex) {
+            // StringWriter doesn't throw
+            throw new RuntimeException(ex);
+        }
+        return out.toString();
+    }
+
+    /**
+     * The latencies in power of two buckets (lock free).
+     */
+    public static final class Histogram {
+
+        /**
+         * The bucket i count the values in [2^(i-1), 2^i) (the bucket 0 the zeros).
+         */
+        private final AtomicLongArray buckets = new AtomicLongArray(64);
+
+        /**
+         * The number of values.
+         */
+        private final LongAdder count = new LongAdder();
+
+        /**
+         * The sum of the values.
+         */
+        private final LongAdder sum = new LongAdder();
+
+        /**
+         * The min value.
+         */
+        private volatile long min = Long.MAX_VALUE;
+
+        /**
+         * The max value.
+         */
+        private volatile long max = 0;
+
+        /**
+         * @param value to record (the negatives count as 0).
+         */
+        void record(final long value) {
+            final long v = Math.max(0, value);
+            buckets.incrementAndGet(64 - Long.numberOfLeadingZeros(v));
+            count.increment();
+            sum.add(v);
+            // Only the first values race here, min and max converge quickly
+            if (v < min) {
+                synchronized (this) {
+                    if (v < min) {
+                        min = v;
+                    }
+                }
+            }
+            if (v > max) {
+                synchronized (this) {
+                    if (v > max) {
+                        max = v;
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return the number of values.
+         */
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         * @return the min value (0 if empty).
+         */
+        public long getMin() {
+            return getCount() == 0 ? 0 : min;
+        }
+
+        /**
+         * @return the max value.
+         */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * @return the mean (0 if empty).
+         */
+        public long getMean() {
+            final long n = count.sum();
+            return n == 0 ? 0 : sum.sum() / n;
+        }
+
+        /**
+         * @param percentile (0 .. 100].
+         * @return the upper bound of the bucket of the percentile (capped by the max).
+         */
+        public long getPercentile(final double percentile) {
+            if (percentile <= 0 || percentile > 100) {
+                throw new IllegalArgumentException("Error: percentile need to be in (0, 100]");
+            }
+            long total = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                total += buckets.get(i);
+            }
+            if (total == 0) {
+                return 0;
+            }
+            final long rank = (long) Math.ceil(total * percentile / 100);
+            long seen = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) {
+                    final long upper = i == 0 ? 0 : i >= 63 ? Long.MAX_VALUE : (1L << i) - 1;
+                    return Math.min(upper, max);
+                }
+            }
+            return max;
+        }
+    }
+}
@@ -14,8 +14,6 @@ package cl.ucn.disc.dsm.dduarte.news.model;
 
 import androidx.annotation.NonNull;
 
-import net.openhft.hashing.LongHashFunction;
-
 import org.threeten.bp.ZonedDateTime;
 
 import cl.ucn.disc.dsm.dduarte.news.utils.Validation;
@@ -28,7 +26,7 @@ public class News {
     /**
      * Unique id.
      */
-    private final Long id;
+    private final long id;
     /**
      * The Title.
      * Restrictions: not null, size > 2
@@ -88,8 +86,8 @@ public class News {
         Validation.minSize(author, 2, "author");
         this.author = author;
 
-        // Apply the xxHash function
-        this.id = LongHashFunction.xx().hashChars(title + "|" + source + "|" + author);
+        // Apply the xxHash function (without building the string)
+        this.id = NewsId.of(title, source, author);
 
         this.url = url;
         this.urlImage = urlImage;
@@ -104,12 +102,54 @@ public class News {
         this.publishedAt = publishedAt;
     }
 
+    /**
+     * The trusted Constructor: without validation and with the id already calculated.
+     */
+    private News(long id, String title, String source, String author, String url, String urlImage, String description, String content, ZonedDateTime publishedAt) {
+        this.id = id;
+        this.title = title;
+        this.source = source;
+        this.author = author;
+        this.url = url;
+        this.urlImage = urlImage;
+        this.description = description;
+        this.content = content;
+        this.publishedAt = publishedAt;
+    }
+
+    /**
+     * Build a News already validated (ex: read from our own store) with the id stored.
+     * The data isn't checked: use the public constructor for anything from outside.
+     *
+     * @param id the id stored (from {@link #getLongId()}).
+     * @return the News.
+     */
+    public static News trusted(long id, String title, String source, String author, String url, String urlImage, String description, String content, ZonedDateTime publishedAt) {
+        return new News(id, title, source, author, url, urlImage, description, content, publishedAt);
+    }
+
+    /**
+     * Build a News already validated (ex: read from our own store) without the id stored.
+     * The data isn't checked: use the public constructor for anything from outside.
+     *
+     * @return the News.
+     */
+    public static News trusted(String title, String source, String author, String url, String urlImage, String description, String content, ZonedDateTime publishedAt) {
+        return new News(NewsId.of(title, source, author), title, source, author, url, urlImage, description, content, publishedAt);
+    }
+
     /**
      * @return the id
      */
     public Long getId() {
         return id;
     }
+    /**
+     * @return the id (without boxing)
+     */
+    public long getLongId() {
+        return id;
+    }
     /**
      * @return the title
      */
@@ -158,6 +198,12 @@ public class News {
     public ZonedDateTime getPublishedAt() {
         return publishedAt;
     }
+    /**
+     * @return the publishedAt as millis since epoch (without the Instant)
+     */
+    public long getPublishedAtMillis() {
+        return publishedAt.toEpochSecond() * 1000 + publishedAt.getNano() / 1_000_000;
+    }
 
     //TODO: Remove after testing
     @NonNull
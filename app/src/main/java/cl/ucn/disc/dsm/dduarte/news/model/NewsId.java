@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.model;
+
+import androidx.annotation.NonNull;
+
+import net.openhft.hashing.LongHashFunction;
+
+/**
+ * The id of the {@link News}: the xxHash of {@code title|source|author}.
+ * <p>
+ * The chars of the three fields are copied into a buffer reused by thread (no concatenation, no
+ * StringBuilder): the same value of {@code LongHashFunction.xx().hashChars(title + "|" + source + "|" + author)}
+ * without allocation. The keys longer than {@link #MAX_BUFFER} use a buffer only for them (a huge
+ * news doesn't keep its size in the buffer of the thread).
+ *
+ * @author Diego Duarte Diaz.
+ */
+public final class NewsId {
+
+    /**
+     * The separator of the fields.
+     */
+    private static final char SEPARATOR = '|';
+
+    /**
+     * The hash function.
+     */
+    private static final LongHashFunction XX = LongHashFunction.xx();
+
+    /**
+     * The max size of the buffer reused by thread (chars).
+     */
+    static final int MAX_BUFFER = 4096;
+
+    /**
+     * The buffer of chars by thread (grows to the longest key, up to MAX_BUFFER).
+     */
+    private static final ThreadLocal<char[]> BUFFER = new ThreadLocal<char[]>() {
+        @Override
+        protected char[] initialValue() {
+            return new char[256];
+        }
+    };
+
+    /**
+     * Utility class.
+     */
+    private NewsId() {
+        // Nothing here
+    }
+
+    /**
+     * @param title of the news.
+     * @param source of the news.
+     * @param author of the news.
+     * @return the id of the news.
+     */
+    public static long of(@NonNull String title, @NonNull String source, @NonNull String author) {
+        final int length = title.length() + source.length() + author.length() + 2;
+        char[] buffer = BUFFER.get();
+        if (length > MAX_BUFFER) {
+            buffer = new char[length];
+        } else if (buffer.length < length) {
+            buffer = new char[Math.min(MAX_BUFFER, Math.max(length, buffer.length << 1))];
+            BUFFER.set(buffer);
+        }
+
+        int position = 0;
+        title.getChars(0, title.length(), buffer, position);
+        position += title.length();
+        buffer[position++] = SEPARATOR;
+        source.getChars(0, source.length(), buffer, position);
+        position += source.length();
+        buffer[position++] = SEPARATOR;
+        author.getChars(0, author.length(), buffer, position);
+
+        return XX.hashChars(buffer, 0, length);
+    }
+
+    /**
+     * @return the size of the buffer of the current thread (testing).
+     */
+    static int getBufferLength() {
+        return BUFFER.get().length;
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import com.kwabenaberko.newsapilib.models.Article;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.threeten.bp.format.DateTimeParseException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+import cl.ucn.disc.dsm.dduarte.news.metrics.Metrics;
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+import cl.ucn.disc.dsm.dduarte.news.utils.Dates;
+import cl.ucn.disc.dsm.dduarte.news.utils.Validation;
+
+/**
+ * The Article to News stage (Transformer pattern), fail-soft.
+ * <p>
+ * The articles without author or description are repaired, the ones that can't be a News
+ * (title, source or publishedAt invalid) are dropped. Both are counted, never thrown.
+ * The big pages are converted in parallel chunks.
+ *
+ * @author Diego Duarte Diaz.
+ */
+public final class ArticleConverter {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(ArticleConverter.class);
+
+    /**
+     * The author of the articles without author.
+     */
+    public static final String NO_AUTHOR = "No author*";
+
+    /**
+     * The description of the articles without description.
+     */
+    public static final String NO_DESCRIPTION = "No description*";
+
+    /**
+     * The min number of articles by chunk (smaller pages aren't worth the threads).
+     */
+    public static final int MIN_CHUNK = 16;
+
+    /**
+     * The executor of the chunks.
+     */
+    private final Executor executor;
+
+    /**
+     * The max number of chunks.
+     */
+    private final int parallelism;
+
+    /**
+     * The articles converted (repaired included).
+     */
+    private final LongAdder converted = new LongAdder();
+
+    /**
+     * The articles repaired.
+     */
+    private final LongAdder repaired = new LongAdder();
+
+    /**
+     * The articles dropped.
+     */
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * The Constructor using the common pool.
+     */
+    public ArticleConverter() {
+        this(ForkJoinPool.commonPool(), ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * The Constructor.
+     *
+     * @param executor of the chunks.
+     * @param parallelism the max number of chunks (1 = sequential).
+     */
+    public ArticleConverter(final Executor executor, final int parallelism) {
+        Validation.notNull(executor, "executor");
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Error: parallelism need to be >0");
+        }
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Convert the articles keeping the order (the dropped ones are skipped).
+     *
+     * @param articles to convert.
+     * @return the list of News.
+     */
+    public List<News> convertAll(final List<Article> articles) {
+        Validation.notNull(articles, "articles");
+
+        final int size = articles.size();
+        final int chunks = Math.min(parallelism, size / MIN_CHUNK);
+        if (chunks < 2) {
+            return convert(articles, 0, size);
+        }
+
+        // The first chunk in this thread, the others in the executor
+        final int chunk = (size + chunks - 1) / chunks;
+        final List<CompletableFuture<List<News>>> futures = new ArrayList<>(chunks - 1);
+        for (int from = chunk; from < size; from += chunk) {
+            final int start = from;
+            futures.add(CompletableFuture.supplyAsync(() -> convert(articles, start, Math.min(size, start + chunk)), executor));
+        }
+        final List<News> news = new ArrayList<>(size);
+        news.addAll(convert(articles, 0, chunk));
+        for (CompletableFuture<List<News>> future : futures) {
+            news.addAll(future.join());
+        }
+        return news;
+    }
+
+    /**
+     * Convert a range of articles.
+     */
+    private List<News> convert(final List<Article> articles, final int from, final int to) {
+        final List<News> news = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            final News n = convert(articles.get(i));
+            if (n != null) {
+                news.add(n);
+            }
+        }
+        return news;
+    }
+
+    /**
+     * Convert one article.
+     *
+     * @param article to convert.
+     * @return the News or null if dropped.
+     */
+    public News convert(final Article article) {
+        if (article == null) {
+            dropped.increment();
+            Metrics.increment(Metrics.ARTICLE_DROPPED);
+            return null;
+        }
+        // The reflection only if somebody is reading
+        if (log.isDebugEnabled()) {
+            log.debug("Article: {}.", ToStringBuilder.reflectionToString(article, ToStringStyle.MULTI_LINE_STYLE));
+        }
+        return convert(
+                article.getTitle(),
+                article.getSource() == null ? null : article.getSource().getName(),
+                article.getAuthor(),
+                article.getUrl(),
+                article.getUrlToImage(),
+                article.getDescription(),
+                article.getPublishedAt()
+        );
+    }
+
+    /**
+     * Convert the fields of one article (shared by the Gson and the streaming decoders).
+     *
+     * @return the News or null if dropped.
+     */
+    public News convert(final String title, final String source, String author, final String url, final String urlImage, String description, final String publishedAt) {
+        boolean fixed = false;
+        if (author == null || author.length() < 2) {
+            author = NO_AUTHOR;
+            fixed = true;
+        }
+        if (description == null || description.isEmpty()) {
+            description = NO_DESCRIPTION;
+            fixed = true;
+        }
+        if (publishedAt == null) {
+            return drop(title, "without publishedAt");
+        }
+
+        final long start = Metrics.start();
+        final News news;
+        try {
+            news = new News(
+                    title,
+                    source,
+                    author,
+                    url,
+                    urlImage,
+                    description,
+                    description, // FIXME: Where is the content?
+                    Dates.toZoned(Dates.parseIsoMillis(publishedAt))
+            );
+        } catch (DateTimeParseException | IllegalArgumentException ex) {
+            return drop(title, ex.getMessage());
+        }
+        Metrics.record(Metrics.CONVERT, start);
+
+        converted.increment();
+        if (fixed) {
+            repaired.increment();
+            Metrics.increment(Metrics.ARTICLE_REPAIRED);
+        }
+        return news;
+    }
+
+    /**
+     * Count the article dropped.
+     *
+     * @return null.
+     */
+    private News drop(final String title, final String reason) {
+        dropped.increment();
+        Metrics.increment(Metrics.ARTICLE_DROPPED);
+        log.warn("Article dropped ({}): {}", reason, title);
+        return null;
+    }
+
+    /**
+     * @return the number of articles converted (repaired included).
+     */
+    public long getConverted() {
+        return converted.sum();
+    }
+
+    /**
+     * @return the number of articles repaired.
+     */
+    public long getRepaired() {
+        return repaired.sum();
+    }
+
+    /**
+     * @return the number of articles dropped.
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+}
@@ -15,22 +15,24 @@ package cl.ucn.disc.dsm.dduarte.news.services;
 import com.kwabenaberko.newsapilib.models.Article;
 
 import org.apache.commons.lang3.NotImplementedException;
-import org.apache.commons.lang3.builder.ToStringBuilder;
-import org.apache.commons.lang3.builder.ToStringStyle;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.threeten.bp.ZoneId;
-import org.threeten.bp.ZonedDateTime;
 
-import java.io.IOException;
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Function;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import cl.ucn.disc.dsm.dduarte.news.metrics.Metrics;
 import cl.ucn.disc.dsm.dduarte.news.model.News;
 import cl.ucn.disc.dsm.dduarte.news.utils.Validation;
 
@@ -42,135 +44,216 @@ public class ContractImplNewsApi implements Contracts {
     private static final Logger log = LoggerFactory.getLogger(ContractImplNewsApi.class);
 
     /**
-     * The connection to NewsApi
+     * The connection to NewsApi (inside the quota).
      */
-    private final NewApiService newsApiServices;
+    private final NewsApiScheduler scheduler;
 
+    /**
+     * The priority of the requests.
+     */
+    private final NewsApiScheduler.Priority priority;
+
+    /**
+     * The categories of NewsApi.
+     */
+    public static final List<String> CATEGORIES = Collections.unmodifiableList(Arrays.asList(
+            "business", "entertainment", "general", "health", "science", "sports", "technology"));
+
+    /**
+     * The Article to News stage (shared by the decoders and the pagers).
+     */
+    private static final ArticleConverter CONVERTER = new ArticleConverter();
+
+    /**
+     * The default timeout of the fan-out and of each request (millis).
+     */
+    public static final long DEFAULT_TIMEOUT = 10_000;
 
+    /**
+     * The executor of the fan-out (one thread by category).
+     */
+    private final ThreadPoolExecutor executor;
 
     public ContractImplNewsApi(String apiKey) {
-        Validation.notNull(apiKey, "ApiKey !!");
-        this.newsApiServices = new NewApiService(apiKey);
+        this(apiKey, null);
     }
 
     /**
-     * The Assembler/Transformer pattern!
+     * The Constructor.
      *
-     * @param article used to source
-     * @return the News.
-     */
-    private static News toNews(final Article article) {
-        Validation.notNull(article, "Article null !?!");
-        // Warning message?
-        boolean needFix = false;
-        // Fix the author null : (
-        if (article.getAuthor() == null || article.getAuthor().length() == 0) {
-            article.setAuthor("No author*");
-            needFix = true;
-        }
-        // Fix more restrictions :(
-        if (article.getDescription() == null || article.getDescription().length() == 0) {
-            article.setDescription("No description*");
-            needFix = true;
-        }
+     * @param apiKey to use.
+     * @param cacheDirectory of the http cache (null = without cache).
+     */
+    public ContractImplNewsApi(String apiKey, File cacheDirectory) {
+        this(new NewsApiScheduler(new NewApiService(validate(apiKey), cacheDirectory)), NewsApiScheduler.Priority.INTERACTIVE);
+    }
 
-        // .. yes, warning message.
-        if (needFix) {
-            // Debug of Article
-            log.warn("Article with invalid restrictions: {}.", ToStringBuilder.reflectionToString(article, ToStringStyle.MULTI_LINE_STYLE
-            ));
-        }
+    /**
+     * The Constructor sharing the scheduler (and the quota).
+     *
+     * @param scheduler to use.
+     * @param priority of the requests.
+     */
+    public ContractImplNewsApi(final NewsApiScheduler scheduler, final NewsApiScheduler.Priority priority) {
+        this(scheduler, priority, newExecutor());
+    }
 
-        // The date
-        ZonedDateTime publishedAt = ZonedDateTime
-                .parse(article.getPublishedAt())
-                .withZoneSameInstant(ZoneId.of("-3"));
+    /**
+     * The Constructor sharing the scheduler and the executor of the fan-out.
+     */
+    private ContractImplNewsApi(final NewsApiScheduler scheduler, final NewsApiScheduler.Priority priority, final ThreadPoolExecutor executor) {
+        Validation.notNull(scheduler, "scheduler");
+        Validation.notNull(priority, "priority");
+        this.scheduler = scheduler;
+        this.priority = priority;
+        this.executor = executor;
+    }
 
-        // The News
-        return new News(
-                article.getTitle(), article.getSource().getName(), article.getAuthor(), article.getUrl(), article.getUrlToImage(), article.getDescription(),
-                article.getDescription(), // FIXME: Where is the content?
-                publishedAt
-        );
+    /**
+     * @return the executor of the fan-out (the threads are created on demand and die when idle).
+     */
+    private static ThreadPoolExecutor newExecutor() {
+        final AtomicInteger counter = new AtomicInteger();
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(CATEGORIES.size(), CATEGORIES.size(), 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "news-api-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
+
+    /**
+     * @return the apiKey validated.
+     */
+    private static String validate(final String apiKey) {
+        Validation.notNull(apiKey, "ApiKey !!");
+        return apiKey;
+    }
+
+    /**
+     * @param priority of the requests.
+     * @return the same NewsApi (quota and threads) with other priority.
+     */
+    public ContractImplNewsApi withPriority(final NewsApiScheduler.Priority priority) {
+        return new ContractImplNewsApi(this.scheduler, priority, this.executor);
+    }
+
     @Override
     public List<News> retrieveNews(Integer size) {
+        return retrieveNews("general", size);
+    }
+
+    /**
+     * Get the news of several categories at the same time, merged by publishedAt.
+     * The categories not received before the timeout are ignored (partial result).
+     *
+     * @param categories to search.
+     * @param size size of the list (and of each category).
+     * @param timeout max time to wait (millis).
+     * @return the List of News (newest first, without duplicated).
+     */
+    public List<News> retrieveNews(final List<String> categories, final Integer size, final long timeout) {
+        Validation.notNull(categories, "categories");
+        Validation.notNull(size, "size");
+
+        List<Callable<List<News>>> requests = new ArrayList<>(categories.size());
+        for (String category : categories) {
+            requests.add(() -> retrieveNews(category, size));
+        }
+        return NewsMerge.fanOut(this.executor, requests, size, timeout);
+    }
+
+    /**
+     * Get the news of one category.
+     *
+     * @param category to search.
+     * @param size size of the list.
+     * @return the List of News (newest first, without duplicated).
+     */
+    private List<News> retrieveNews(final String category, final Integer size) {
+        //Request to NewsApi (by the scheduler), Article -> News while reading the body
+        final CompletableFuture<List<News>> request = this.scheduler.getTopHeadlines(category, size, 1, this.priority);
         try{
-            //Request to NewsApi
-            List<Article> articles = this.newsApiServices.getTopHeadlines("general", size);
-
-            //The final list of news
-            List <News> news = new ArrayList<>();
-            for (Article article : articles){
-                //Article -> News
-                news.add(article2news(article));
-            }
+            List<News> news = request.get(DEFAULT_TIMEOUT, TimeUnit.MILLISECONDS);
+
             //return the list of news.
-            return news.stream()
-                    //Remote the duplicates (by id)
-                    .filter(distintById(News::getId))
-                    //Sort the stream by publishedAt
-                    .sorted((k1,k2) -> k2.getPublishedAt().compareTo(k1.getPublishedAt()))
-                    //return the stream to list
-                    .collect(Collectors.toList());
-        }catch(IOException e){
-            log.error("error", e);
-            //Inner exception
+            return distinctAndSort(news, size);
+        }catch(InterruptedException e){
+            // Nobody is waiting (ex: the fan-out timeout): don't send the request if still waiting
+            request.cancel(false);
+            Thread.currentThread().interrupt();
             throw new RuntimeException(e);
+        }catch(TimeoutException e){
+            // Without quota: fail instead of waiting for the refill
+            request.cancel(false);
+            throw new RuntimeException("Timeout waiting for NewsApi (" + DEFAULT_TIMEOUT + " ms): " + category, e);
+        }catch(ExecutionException e){
+            log.error("error", e.getCause());
+            //Inner exception
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new RuntimeException(e.getCause());
         }
     }
 
     /**
-     * Filter the stream
-     * @param idExtractor
-     * @param <T> news to filter
-     * @return true if the news already exists.
+     * Remove the duplicates (by id) and sort by publishedAt (newest first).
+     *
+     * @param news to process.
+     * @return the new list of news.
      */
-    private static <T>Predicate<T>distintById(Function<? super T, ?> idExtractor){
-        Map<Object, Boolean> seen = new ConcurrentHashMap<>();
-        return t -> seen.putIfAbsent(idExtractor.apply(t), Boolean.TRUE) == null;
+    static List<News> distinctAndSort(final List<News> news) {
+        return distinctAndSort(news, news.size());
     }
 
     /**
-     * Article to News. (Transformer Pattern).
-     * @param article to convert.
-     * @return the news.
+     * Remove the duplicates (by id) and keep the newest (by publishedAt) without sorting all of them.
+     *
+     * @param news to process.
+     * @param size max size of the result.
+     * @return the new list of news (newest first).
      */
-    private static News article2news(Article article) {
-        //Debug for Article
-        log.debug("Articles: {}.", ToStringBuilder.reflectionToString(article, ToStringStyle.MULTI_LINE_STYLE));
+    static List<News> distinctAndSort(final List<News> news, final int size) {
+        final long start = Metrics.start();
+        final List<News> result = NewsTopK.selectDistinct(news, size);
+        Metrics.record(Metrics.DEDUP_SORT, start);
+        return result;
+    }
 
-        //the date
-        ZonedDateTime publishedAt = ZonedDateTime.parse(article.getPublishedAt()).withZoneSameInstant(ZoneId.of("-3"));
+    /**
+     * @return the Article to News stage (and the counters).
+     */
+    public static ArticleConverter getConverter() {
+        return CONVERTER;
+    }
 
-        if(article.getAuthor() == null){
-            log.warn("Article without author!!");
-            return null;
-        }
-        if(article.getDescription() == null){
-            log.warn("Article without description!!");
-            return null;
-        }
+    /**
+     * Article to News. (Transformer Pattern).
+     * @param article to convert.
+     * @return the news or null if the article was dropped.
+     */
+    static News article2news(Article article) {
+        return CONVERTER.convert(article);
+    }
 
-        //fixing the restrictions :
-        if (article.getAuthor() == null){
-            article.setAuthor("No Author");
-        }
-        //fixing the description
-        if (article.getDescription() == null || article.getDescription().length() == 0){
-            article.setAuthor("No Description");
-        }
+    /**
+     * The fields of one Article to News (shared by the Gson and the streaming decoders).
+     *
+     * @return the news or null if the article was dropped.
+     */
+    static News fields2news(String title, String source, String author, String url, String urlImage, String description, String publishedAt) {
+        return CONVERTER.convert(title, source, author, url, urlImage, description, publishedAt);
+    }
 
-        return new News(
-                article.getTitle(),
-                article.getSource().getName(),
-                article.getAuthor(),
-                article.getUrl(),
-                article.getUrlToImage(),
-                article.getDescription(),
-                article.getDescription(), //FIXME: Where is the content?
-                publishedAt
-        );
+    /**
+     * Build a pager to retrieve the news page by page.
+     *
+     * @param category to search.
+     * @param pageSize the number of news by page.
+     * @return the NewsPager.
+     */
+    public NewsPager pager(final String category, final int pageSize) {
+        return new NewsPager(this.scheduler, category, pageSize);
     }
 
     @Override
@@ -32,4 +32,13 @@ public interface Contracts {
      * @param news to save
      */
     void saveNews(News news);
+    /**
+     * Save a batch of News into the system.
+     * @param news to save
+     */
+    default void saveNews(List<News> news) {
+        for (News n : news) {
+            saveNews(n);
+        }
+    }
 }
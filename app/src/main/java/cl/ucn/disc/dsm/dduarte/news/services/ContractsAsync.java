@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+import cl.ucn.disc.dsm.dduarte.news.utils.Validation;
+
+/**
+ * The asynchronous version of {@link Contracts}, backed by a bounded executor.
+ * <p>
+ * Two identical retrieveNews in flight share the same request. Cancelling the returned future only
+ * detaches that caller (the request continues for the others); {@link #cancel(Integer)} aborts the
+ * request itself.
+ *
+ * @author Diego Duarte Diaz.
+ */
+public final class ContractsAsync {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(ContractsAsync.class);
+
+    /**
+     * Default number of threads.
+     */
+    public static final int DEFAULT_THREADS = 2;
+
+    /**
+     * Default number of tasks waiting.
+     */
+    public static final int DEFAULT_QUEUE = 16;
+
+    /**
+     * The Contracts (sync).
+     */
+    private final Contracts contracts;
+
+    /**
+     * The executor.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * The retrieveNews in flight (by size).
+     */
+    private final Map<Integer, InFlight> inFlight = new HashMap<>();
+
+    /**
+     * The Constructor with the default values.
+     *
+     * @param contracts to use.
+     */
+    public ContractsAsync(final Contracts contracts) {
+        this(contracts, DEFAULT_THREADS, DEFAULT_QUEUE);
+    }
+
+    /**
+     * The Constructor.
+     *
+     * @param contracts to use.
+     * @param threads max number of threads.
+     * @param queue max number of tasks waiting.
+     */
+    public ContractsAsync(final Contracts contracts, final int threads, final int queue) {
+        Validation.notNull(contracts, "contracts");
+        if (threads < 1 || queue < 1) {
+            throw new IllegalArgumentException("Error: threads and queue need to be >0");
+        }
+        this.contracts = contracts;
+
+        final AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queue), runnable -> {
+            Thread thread = new Thread(runnable, "news-contracts-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Get the list of News (in background).
+     *
+     * @param size size of the list.
+     * @return the future of the List of News (cancel to detach).
+     */
+    public CompletableFuture<List<News>> retrieveNews(final Integer size) {
+        Validation.notNull(size, "size");
+
+        final InFlight shared;
+        synchronized (inFlight) {
+            InFlight current = inFlight.get(size);
+            if (current == null) {
+                current = start(size);
+            } else {
+                log.debug("Joining the retrieveNews({}) in flight.", size);
+            }
+            shared = current;
+        }
+
+        // The future of this caller
+        final CompletableFuture<List<News>> caller = new CompletableFuture<>();
+        shared.result.whenComplete((news, error) -> {
+            if (error != null) {
+                caller.completeExceptionally(error);
+            } else {
+                caller.complete(news);
+            }
+        });
+        return caller;
+    }
+
+    /**
+     * Save a batch of News (in background).
+     *
+     * @param news to save.
+     * @return the future of the save.
+     */
+    public CompletableFuture<Void> saveNews(final List<News> news) {
+        Validation.notNull(news, "news");
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    contracts.saveNews(news);
+                    result.complete(null);
+                } catch (RuntimeException ex) {
+                    result.completeExceptionally(ex);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            result.completeExceptionally(ex);
+        }
+        return result;
+    }
+
+    /**
+     * Abort the retrieveNews in flight (all the callers are cancelled).
+     *
+     * @param size of the request.
+     * @return true if there was a request in flight.
+     */
+    public boolean cancel(final Integer size) {
+        final InFlight shared;
+        synchronized (inFlight) {
+            shared = inFlight.remove(size);
+        }
+        if (shared == null) {
+            return false;
+        }
+        shared.task.cancel(true);
+        shared.result.cancel(false);
+        return true;
+    }
+
+    /**
+     * Stop the executor (interrupting the running tasks).
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Start the request (called with the lock of inFlight).
+     */
+    private InFlight start(final Integer size) {
+        final CompletableFuture<List<News>> result = new CompletableFuture<>();
+        final InFlight shared = new InFlight(result);
+        try {
+            shared.task = executor.submit(() -> {
+                List<News> news = null;
+                RuntimeException error = null;
+                try {
+                    news = contracts.retrieveNews(size);
+                } catch (RuntimeException ex) {
+                    error = ex;
+                }
+                // Not in flight before the callers are notified
+                synchronized (inFlight) {
+                    inFlight.remove(size, shared);
+                }
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(news);
+                }
+            });
+            inFlight.put(size, shared);
+        } catch (RejectedExecutionException ex) {
+            log.warn("Too many requests, retrieveNews({}) rejected.", size);
+            result.completeExceptionally(ex);
+        }
+        return shared;
+    }
+
+    /**
+     * The request in flight.
+     */
+    private static final class InFlight {
+
+        /**
+         * The result shared by the callers.
+         */
+        private final CompletableFuture<List<News>> result;
+
+        /**
+         * The task in the executor.
+         */
+        private Future<?> task;
+
+        InFlight(final CompletableFuture<List<News>> result) {
+            this.result = result;
+        }
+    }
+}
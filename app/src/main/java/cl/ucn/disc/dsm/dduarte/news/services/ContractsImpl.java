@@ -19,6 +19,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import cl.ucn.disc.dsm.dduarte.news.model.News;
+import cl.ucn.disc.dsm.dduarte.news.utils.LongHashSet;
 
 /**
  * @author Diego Duarte Diaz
@@ -35,6 +36,11 @@ public class ContractsImpl implements Contracts {
      */
     private final List<News> news = new ArrayList<>();
 
+    /**
+     * The ids of the news (to reject the duplicated).
+     */
+    private final LongHashSet ids = new LongHashSet();
+
     /**
      * Get the list of news
      * @param size size of the list.
@@ -42,9 +48,9 @@ public class ContractsImpl implements Contracts {
      */
 
     @Override
-    public List<News> retrieveNews(final Integer size) {
-        //The last "size" elements.
-        return news.subList(news.size() - size, news.size());
+    public synchronized List<News> retrieveNews(final Integer size) {
+        //The newest "size" elements (the order of insertion isn't the publishedAt).
+        return NewsTopK.select(news, size);
     }
 
     /**
@@ -52,8 +58,12 @@ public class ContractsImpl implements Contracts {
      * @param news to save
      */
     @Override
-    public void saveNews (final News news){
-        //Fixme: Don't allow duplicated!!
+    public synchronized void saveNews (final News news){
+        // Don't allow duplicated
+        if (!this.ids.add(news.getLongId())) {
+            log.debug("Duplicated news rejected: {}", news.getId());
+            return;
+        }
         this.news.add(news);
     }
 
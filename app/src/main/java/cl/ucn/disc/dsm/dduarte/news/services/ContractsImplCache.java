@@ -0,0 +1,413 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import cl.ucn.disc.dsm.dduarte.news.metrics.Metrics;
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+import cl.ucn.disc.dsm.dduarte.news.utils.Validation;
+
+/**
+ * Two-tier (memory + disk) cache in front of another {@link Contracts} (Decorator pattern).
+ * <p>
+ * The entries are fresh for {@code ttl} millis. After that, and for {@code maxStale} millis more,
+ * the stale entry is returned and a background refresh is launched (stale-while-revalidate).
+ * Older entries are fetched again from the delegate.
+ *
+ * @author Diego Duarte Diaz.
+ */
+public final class ContractsImplCache implements Contracts {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(ContractsImplCache.class);
+
+    /**
+     * Default time to live: 15 minutes.
+     */
+    public static final long DEFAULT_TTL = TimeUnit.MINUTES.toMillis(15);
+
+    /**
+     * Default stale window: 1 day.
+     */
+    public static final long DEFAULT_MAX_STALE = TimeUnit.DAYS.toMillis(1);
+
+    /**
+     * Default number of entries in memory.
+     */
+    public static final int DEFAULT_MEMORY_ENTRIES = 8;
+
+    /**
+     * The source of the news.
+     */
+    private final Contracts contracts;
+
+    /**
+     * The directory of the disk tier.
+     */
+    private final File directory;
+
+    /**
+     * The time to live (millis).
+     */
+    private final long ttl;
+
+    /**
+     * The stale window after the ttl (millis).
+     */
+    private final long maxStale;
+
+    /**
+     * The clock (millis).
+     */
+    private final LongSupplier clock;
+
+    /**
+     * The memory tier: LRU by size requested.
+     */
+    private final Map<Integer, CacheEntry> memory;
+
+    /**
+     * The number of clear: a list retrieved before a clear isn't cached (guarded by memory).
+     */
+    private long generation;
+
+    /**
+     * The lock of the disk tier: the write of an entry and the clear don't interleave.
+     */
+    private final Object disk = new Object();
+
+    /**
+     * The sizes with a refresh in progress.
+     */
+    private final Set<Integer> refreshing = new HashSet<>();
+
+    /**
+     * The entries retrieved before this time are expired (millis).
+     */
+    private volatile long invalidatedAt = Long.MIN_VALUE;
+
+    /**
+     * The executor of the background refresh.
+     */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "news-cache-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The Constructor with the default values.
+     *
+     * @param contracts to decorate.
+     * @param directory of the disk tier.
+     */
+    public ContractsImplCache(final Contracts contracts, final File directory) {
+        this(contracts, directory, DEFAULT_TTL, DEFAULT_MAX_STALE, DEFAULT_MEMORY_ENTRIES);
+    }
+
+    /**
+     * The Constructor.
+     *
+     * @param contracts to decorate.
+     * @param directory of the disk tier.
+     * @param ttl time to live of the entries (millis).
+     * @param maxStale window after the ttl in which the stale entry is still returned (millis).
+     * @param memoryEntries max number of entries in memory.
+     */
+    public ContractsImplCache(final Contracts contracts, final File directory, final long ttl, final long maxStale, final int memoryEntries) {
+        this(contracts, directory, ttl, maxStale, memoryEntries, System::currentTimeMillis);
+    }
+
+    /**
+     * The Constructor with the clock (testing).
+     */
+    ContractsImplCache(final Contracts contracts, final File directory, final long ttl, final long maxStale, final int memoryEntries, final LongSupplier clock) {
+        Validation.notNull(contracts, "contracts");
+        Validation.notNull(directory, "directory");
+        Validation.notNull(clock, "clock");
+        if (ttl < 0 || maxStale < 0 || memoryEntries < 1) {
+            throw new IllegalArgumentException("Error: ttl and maxStale need to be >=0 and memoryEntries >0");
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalArgumentException("Can't create the directory: " + directory);
+        }
+        this.contracts = contracts;
+        this.directory = directory;
+        this.ttl = ttl;
+        this.maxStale = maxStale;
+        this.clock = clock;
+        this.memory = new LinkedHashMap<Integer, CacheEntry>(memoryEntries, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, CacheEntry> eldest) {
+                return size() > memoryEntries;
+            }
+        };
+    }
+
+    /**
+     * Get the list of News: memory, disk and then the delegate.
+     *
+     * @param size size of the list.
+     * @return the List of News.
+     */
+    @Override
+    public List<News> retrieveNews(final Integer size) {
+        Validation.notNull(size, "size");
+
+        CacheEntry entry = lookup(size);
+        final long now = clock.getAsLong();
+
+        // Invalidated: treat it as too old (but keep it in case of error)
+        if (entry != null && entry.timestamp < invalidatedAt) {
+            log.debug("Cache invalidated (size: {}).", size);
+            Metrics.increment(Metrics.CACHE_MISS);
+            return fetchOrExpired(size, entry);
+        }
+
+        // Fresh
+        if (entry != null && now - entry.timestamp <= ttl) {
+            log.debug("Cache hit (size: {}).", size);
+            Metrics.increment(Metrics.CACHE_HIT);
+            return entry.news;
+        }
+
+        // Stale: return it and refresh in background
+        if (entry != null && now - entry.timestamp <= ttl + maxStale) {
+            log.debug("Cache stale (size: {}), revalidating ..", size);
+            Metrics.increment(Metrics.CACHE_STALE);
+            refresh(size);
+            return entry.news;
+        }
+
+        // Miss (or too old)
+        log.debug("Cache miss (size: {}).", size);
+        Metrics.increment(Metrics.CACHE_MISS);
+        return fetchOrExpired(size, entry);
+    }
+
+    /**
+     * Expire all the entries: the next retrieveNews goes to the delegate (pull to refresh).
+     * The old entries are still used if the delegate fails.
+     */
+    public void invalidate() {
+        this.invalidatedAt = clock.getAsLong();
+    }
+
+    /**
+     * Retrieve the news from the delegate, using the expired entry (if any) in case of error.
+     */
+    private List<News> fetchOrExpired(final Integer size, final CacheEntry entry) {
+        try {
+            return fetch(size).news;
+        } catch (RuntimeException ex) {
+            if (entry != null) {
+                log.warn("Can't retrieve the news, using the expired ones", ex);
+                return entry.news;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Save one News into the delegate, invalidating the cache.
+     *
+     * @param news to save
+     */
+    @Override
+    public void saveNews(final News news) {
+        this.contracts.saveNews(news);
+        clear();
+    }
+
+    /**
+     * Save a batch of News into the delegate, invalidating the cache.
+     *
+     * @param news to save
+     */
+    @Override
+    public void saveNews(final List<News> news) {
+        this.contracts.saveNews(news);
+        clear();
+    }
+
+    /**
+     * Remove the entries of both tiers (the delegate changed: the old lists are wrong).
+     */
+    private void clear() {
+        synchronized (disk) {
+            synchronized (memory) {
+                generation++;
+                memory.clear();
+            }
+            final File[] files = directory.listFiles((dir, name) -> name.startsWith("news-") && name.endsWith(".cache"));
+            if (files == null) {
+                return;
+            }
+            for (File file : files) {
+                if (!file.delete() && file.exists()) {
+                    log.warn("Can't delete the cache file {}", file);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the current generation.
+     */
+    private long generation() {
+        synchronized (memory) {
+            return generation;
+        }
+    }
+
+    /**
+     * Find the entry in memory or in disk (promoting it to memory).
+     */
+    private CacheEntry lookup(final Integer size) {
+        final long current;
+        synchronized (memory) {
+            CacheEntry entry = memory.get(size);
+            if (entry != null) {
+                return entry;
+            }
+            current = generation;
+        }
+        CacheEntry entry = readDisk(size);
+        if (entry != null) {
+            synchronized (memory) {
+                // Cleared while reading: the file was old
+                if (generation != current) {
+                    return null;
+                }
+                memory.put(size, entry);
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Retrieve the news from the delegate and store them in both tiers (if there wasn't a save
+     * in the middle: the news can be older than the save).
+     */
+    private CacheEntry fetch(final Integer size) {
+        final long current = generation();
+        final List<News> news = contracts.retrieveNews(size);
+        final CacheEntry entry = new CacheEntry(clock.getAsLong(), Collections.unmodifiableList(news));
+        synchronized (disk) {
+            synchronized (memory) {
+                if (generation != current) {
+                    log.debug("Cache cleared while retrieving (size: {}), not cached.", size);
+                    return entry;
+                }
+                memory.put(size, entry);
+            }
+            writeDisk(size, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Launch (only once per size) the background refresh.
+     */
+    private void refresh(final Integer size) {
+        synchronized (refreshing) {
+            if (!refreshing.add(size)) {
+                return;
+            }
+        }
+        executor.execute(() -> {
+            try {
+                fetch(size);
+            } catch (RuntimeException ex) {
+                log.warn("Can't refresh the news", ex);
+            } finally {
+                synchronized (refreshing) {
+                    refreshing.remove(size);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return the file of the entry.
+     */
+    private File file(final Integer size) {
+        return new File(directory, "news-" + size + ".cache");
+    }
+
+    /**
+     * Read the entry from disk (a {@link NewsSnapshot}).
+     *
+     * @return the entry or null if not found (or corrupt).
+     */
+    private CacheEntry readDisk(final Integer size) {
+        final File file = file(size);
+        try {
+            final NewsSnapshot snapshot = NewsSnapshot.read(file);
+            return snapshot == null ? null : new CacheEntry(snapshot.getTimestamp(), snapshot.getNews());
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Can't read the cache file {}", file, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Write the entry to disk (atomically).
+     */
+    private void writeDisk(final Integer size, final CacheEntry entry) {
+        final File file = file(size);
+        try {
+            NewsSnapshot.write(file, new NewsSnapshot(entry.timestamp, entry.news));
+        } catch (IOException ex) {
+            log.warn("Can't write the cache file {}", file, ex);
+        }
+    }
+
+    /**
+     * The entry of the cache.
+     */
+    private static final class CacheEntry {
+
+        /**
+         * When was retrieved (millis).
+         */
+        private final long timestamp;
+
+        /**
+         * The news.
+         */
+        private final List<News> news;
+
+        CacheEntry(final long timestamp, final List<News> news) {
+            this.timestamp = timestamp;
+            this.news = news;
+        }
+    }
+}
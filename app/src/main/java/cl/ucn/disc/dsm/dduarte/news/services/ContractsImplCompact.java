@@ -0,0 +1,415 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import org.threeten.bp.Instant;
+import org.threeten.bp.ZoneId;
+import org.threeten.bp.ZonedDateTime;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+import cl.ucn.disc.dsm.dduarte.news.utils.LongHashSet;
+import cl.ucn.disc.dsm.dduarte.news.utils.Validation;
+
+/**
+ * The memory-compact implementation of {@link Contracts}, for big archives of news.
+ * <p>
+ * The news are stored by column: the id and the publishedAt (epoch millis) as {@code long[]},
+ * the source, author and zone as indexes of a dictionary (repeated strings stored once) and the
+ * texts as UTF-8 inside one byte[] (the arena). The {@link News} are built only when read.
+ *
+ * @author Diego Duarte Diaz.
+ */
+public final class ContractsImplCompact implements Contracts {
+
+    /**
+     * The texts by news (in the arena): title, url, urlImage, description and content.
+     */
+    private static final int TEXTS = 5;
+
+    private static final int TITLE = 0;
+    private static final int URL = 1;
+    private static final int URL_IMAGE = 2;
+    private static final int DESCRIPTION = 3;
+    private static final int CONTENT = 4;
+
+    /**
+     * Flag: the content is the same as the description (not stored twice).
+     */
+    private static final byte CONTENT_IS_DESCRIPTION = 1 << TEXTS;
+
+    /**
+     * The number of news.
+     */
+    private int size;
+
+    /**
+     * The ids.
+     */
+    private long[] ids;
+
+    /**
+     * The publishedAt (epoch millis).
+     */
+    private long[] publishedAt;
+
+    /**
+     * The source (index in the dictionary).
+     */
+    private int[] sources;
+
+    /**
+     * The author (index in the dictionary).
+     */
+    private int[] authors;
+
+    /**
+     * The zone of the publishedAt (index in the dictionary).
+     */
+    private int[] zones;
+
+    /**
+     * The flags: a bit by null text + {@link #CONTENT_IS_DESCRIPTION}.
+     */
+    private byte[] flags;
+
+    /**
+     * The end of each text in the arena (the start is the end of the previous one).
+     */
+    private int[] ends;
+
+    /**
+     * The UTF-8 texts.
+     */
+    private byte[] arena;
+
+    /**
+     * The bytes used in the arena.
+     */
+    private int arenaSize;
+
+    /**
+     * The position of the news, newest first.
+     */
+    private int[] order;
+
+    /**
+     * The index by id.
+     */
+    private final LongHashSet idx;
+
+    /**
+     * The repeated strings: source and author.
+     */
+    private final Dictionary names = new Dictionary();
+
+    /**
+     * The zones (few, stored once).
+     */
+    private final List<ZoneId> zoneIds = new ArrayList<>();
+
+    /**
+     * The Constructor.
+     */
+    public ContractsImplCompact() {
+        this(1024);
+    }
+
+    /**
+     * The Constructor.
+     *
+     * @param capacity the expected number of news.
+     */
+    public ContractsImplCompact(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Error: capacity need to be >0");
+        }
+        this.ids = new long[capacity];
+        this.publishedAt = new long[capacity];
+        this.sources = new int[capacity];
+        this.authors = new int[capacity];
+        this.zones = new int[capacity];
+        this.flags = new byte[capacity];
+        this.ends = new int[capacity * TEXTS];
+        this.order = new int[capacity];
+        this.arena = new byte[capacity * 64];
+        this.idx = new LongHashSet(capacity);
+    }
+
+    /**
+     * Get the newest News. The list is a view: each News is built when read.
+     *
+     * @param size size of the list.
+     * @return the List of News (newest first).
+     */
+    @Override
+    public synchronized List<News> retrieveNews(final Integer size) {
+        Validation.notNull(size, "size");
+        if (size < 0) {
+            throw new IllegalArgumentException("Error: size need to be >=0");
+        }
+        final int[] positions = Arrays.copyOf(order, Math.min(size, this.size));
+        return new AbstractList<News>() {
+            @Override
+            public News get(final int index) {
+                return news(positions[index]);
+            }
+
+            @Override
+            public int size() {
+                return positions.length;
+            }
+        };
+    }
+
+    /**
+     * Save one News (the duplicated are rejected).
+     *
+     * @param news to save.
+     */
+    @Override
+    public void saveNews(final News news) {
+        Validation.notNull(news, "news");
+        saveNews(Collections.singletonList(news));
+    }
+
+    /**
+     * Save a batch of News (the duplicated are rejected).
+     *
+     * @param news to save.
+     */
+    @Override
+    public synchronized void saveNews(final List<News> news) {
+        Validation.notNull(news, "news");
+
+        final int first = this.size;
+        for (News n : news) {
+            if (n != null && idx.add(n.getLongId())) {
+                append(n);
+            }
+        }
+        if (this.size > first) {
+            merge(first);
+        }
+    }
+
+    /**
+     * @return the number of news.
+     */
+    public synchronized int size() {
+        return this.size;
+    }
+
+    /**
+     * Build the News stored in one position.
+     */
+    private synchronized News news(final int position) {
+        final String description = text(position, DESCRIPTION);
+        final String content = (flags[position] & CONTENT_IS_DESCRIPTION) != 0 ? description : text(position, CONTENT);
+        // Already validated when saved: the id stored, no validation
+        return News.trusted(ids[position], text(position, TITLE), names.get(sources[position]), names.get(authors[position]),
+                text(position, URL), text(position, URL_IMAGE), description, content,
+                ZonedDateTime.ofInstant(Instant.ofEpochMilli(publishedAt[position]), zoneIds.get(zones[position])));
+    }
+
+    /**
+     * Append the news at the end of the columns.
+     */
+    private void append(final News news) {
+        if (size == ids.length) {
+            grow(size << 1);
+        }
+        final int position = size;
+        ids[position] = news.getLongId();
+        publishedAt[position] = news.getPublishedAtMillis();
+        sources[position] = names.add(news.getSource());
+        authors[position] = names.add(news.getAuthor());
+        zones[position] = zone(news.getPublishedAt().getZone());
+
+        byte flag = 0;
+        flag |= putText(position, TITLE, news.getTitle());
+        flag |= putText(position, URL, news.getUrl());
+        flag |= putText(position, URL_IMAGE, news.getUrlImage());
+        flag |= putText(position, DESCRIPTION, news.getDescription());
+        if (news.getContent() != null && news.getContent().equals(news.getDescription())) {
+            flag |= CONTENT_IS_DESCRIPTION;
+            ends[position * TEXTS + CONTENT] = arenaSize;
+        } else {
+            flag |= putText(position, CONTENT, news.getContent());
+        }
+        flags[position] = flag;
+        size++;
+    }
+
+    /**
+     * Copy the text into the arena.
+     *
+     * @return the flag of null (or 0).
+     */
+    private byte putText(final int position, final int text, final String value) {
+        if (value == null) {
+            ends[position * TEXTS + text] = arenaSize;
+            return (byte) (1 << text);
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (arenaSize + bytes.length > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arena.length << 1, arenaSize + bytes.length));
+        }
+        System.arraycopy(bytes, 0, arena, arenaSize, bytes.length);
+        arenaSize += bytes.length;
+        ends[position * TEXTS + text] = arenaSize;
+        return 0;
+    }
+
+    /**
+     * Read the text from the arena.
+     */
+    private String text(final int position, final int text) {
+        if ((flags[position] & (1 << text)) != 0) {
+            return null;
+        }
+        final int index = position * TEXTS + text;
+        final int start = index == 0 ? 0 : ends[index - 1];
+        return new String(arena, start, ends[index] - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the index of the zone.
+     */
+    private int zone(final ZoneId zone) {
+        int index = zoneIds.indexOf(zone);
+        if (index < 0) {
+            index = zoneIds.size();
+            zoneIds.add(zone);
+        }
+        return index;
+    }
+
+    /**
+     * Merge the news appended since first into the order (newest first).
+     */
+    private void merge(final int first) {
+        // Sort the new positions (a few, in general)
+        final int[] positions = new int[size - first];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = first + i;
+        }
+        final int[] added = sort(positions);
+
+        // Merge from the end, in place
+        int i = first - 1;
+        int j = added.length - 1;
+        for (int k = size - 1; j >= 0; k--) {
+            if (i >= 0 && newer(added[j], order[i])) {
+                order[k] = order[i--];
+            } else {
+                order[k] = added[j--];
+            }
+        }
+    }
+
+    /**
+     * @return true if the news at position p1 goes before the one at p2: newer or same time and
+     * smaller id (the order of {@link NewsTopK}).
+     */
+    private boolean newer(final int p1, final int p2) {
+        return publishedAt[p1] > publishedAt[p2] || (publishedAt[p1] == publishedAt[p2] && ids[p1] < ids[p2]);
+    }
+
+    /**
+     * Sort the positions newest first (bottom-up merge sort, without boxing).
+     *
+     * @return the sorted positions (the same array or other one).
+     */
+    private int[] sort(final int[] positions) {
+        int[] from = positions;
+        int[] to = new int[positions.length];
+        for (int width = 1; width < positions.length; width <<= 1) {
+            for (int start = 0; start < positions.length; start += width << 1) {
+                final int middle = Math.min(start + width, positions.length);
+                final int end = Math.min(start + (width << 1), positions.length);
+                int i = start;
+                int j = middle;
+                for (int k = start; k < end; k++) {
+                    if (j >= end || (i < middle && !newer(from[j], from[i]))) {
+                        to[k] = from[i++];
+                    } else {
+                        to[k] = from[j++];
+                    }
+                }
+            }
+            final int[] swap = from;
+            from = to;
+            to = swap;
+        }
+        return from;
+    }
+
+    /**
+     * Grow the columns.
+     */
+    private void grow(final int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        publishedAt = Arrays.copyOf(publishedAt, capacity);
+        sources = Arrays.copyOf(sources, capacity);
+        authors = Arrays.copyOf(authors, capacity);
+        zones = Arrays.copyOf(zones, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        ends = Arrays.copyOf(ends, capacity * TEXTS);
+        order = Arrays.copyOf(order, capacity);
+    }
+
+    /**
+     * Repeated strings stored once: the string by index and the index by string.
+     */
+    private static final class Dictionary {
+
+        /**
+         * The strings.
+         */
+        private final List<String> values = new ArrayList<>();
+
+        /**
+         * The index of each string.
+         */
+        private final Map<String, Integer> indexes = new HashMap<>();
+
+        /**
+         * @return the index of the value (adding it the first time).
+         */
+        int add(final String value) {
+            Integer index = indexes.get(value);
+            if (index == null) {
+                index = values.size();
+                values.add(value);
+                indexes.put(value, index);
+            }
+            return index;
+        }
+
+        /**
+         * @return the value of the index.
+         */
+        String get(final int index) {
+            return values.get(index);
+        }
+    }
+}
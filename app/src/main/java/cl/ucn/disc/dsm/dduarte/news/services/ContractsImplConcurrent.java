@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+import cl.ucn.disc.dsm.dduarte.news.utils.LongHashSet;
+import cl.ucn.disc.dsm.dduarte.news.utils.Validation;
+
+/**
+ * The thread-safe in memory implementation of {@link Contracts}.
+ * <p>
+ * The readers never lock: the news are an immutable array (newest first) published in a volatile
+ * field, so retrieveNews only copies the first size elements of the current snapshot. The writers
+ * queue the news and one of them (the one with the lock) drains the queue and publishes a new
+ * snapshot with all the pending news: the writers that arrive meanwhile are combined in one copy.
+ * Each publish copies the whole array, so the saves are better in batches (see
+ * {@link #saveNews(List)}).
+ *
+ * @author Diego Duarte Diaz.
+ */
+public final class ContractsImplConcurrent implements Contracts {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(ContractsImplConcurrent.class);
+
+    /**
+     * The order of the snapshot: publishedAt (newest first) and then id.
+     */
+    private static final Comparator<News> NEWEST_FIRST = (n1, n2) -> {
+        int compare = Long.compare(n2.getPublishedAtMillis(), n1.getPublishedAtMillis());
+        return compare != 0 ? compare : Long.compare(n1.getLongId(), n2.getLongId());
+    };
+
+    /**
+     * The empty snapshot.
+     */
+    private static final News[] EMPTY = new News[0];
+
+    /**
+     * The news (newest first), never changed once published.
+     */
+    private volatile News[] snapshot = EMPTY;
+
+    /**
+     * The news waiting to be published.
+     */
+    private final ConcurrentLinkedQueue<News> pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The lock of the writer that publishes.
+     */
+    private final ReentrantLock writer = new ReentrantLock();
+
+    /**
+     * The ids of the news (to reject the duplicated), only used with the writer lock.
+     */
+    private final LongHashSet ids = new LongHashSet();
+
+    /**
+     * Get the newest News (without locks).
+     *
+     * @param size size of the list.
+     * @return the List of News (newest first).
+     */
+    @Override
+    public List<News> retrieveNews(final Integer size) {
+        Validation.notNull(size, "size");
+        if (size < 0) {
+            throw new IllegalArgumentException("Error: size need to be >=0");
+        }
+        final News[] current = snapshot;
+        return new ArrayList<>(Arrays.asList(current).subList(0, Math.min(size, current.length)));
+    }
+
+    /**
+     * Save one News (visible to the readers when this method returns).
+     *
+     * @param news to save
+     */
+    @Override
+    public void saveNews(final News news) {
+        Validation.notNull(news, "news");
+        pending.add(news);
+        publish();
+    }
+
+    /**
+     * Save a batch of News in one snapshot (visible to the readers when this method returns).
+     *
+     * @param news to save
+     */
+    @Override
+    public void saveNews(final List<News> news) {
+        Validation.notNull(news, "news");
+        if (news.isEmpty()) {
+            return;
+        }
+        pending.addAll(news);
+        publish();
+    }
+
+    /**
+     * @return the number of news saved.
+     */
+    public int size() {
+        return snapshot.length;
+    }
+
+    /**
+     * Publish a new snapshot with the pending news (if another writer didn't publish them yet).
+     */
+    private void publish() {
+        writer.lock();
+        try {
+            // The news of this writer are already published (by the previous one)
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            final List<News> batch = new ArrayList<>();
+            News news;
+            while ((news = pending.poll()) != null) {
+                if (ids.add(news.getLongId())) {
+                    batch.add(news);
+                } else {
+                    log.debug("Duplicated news rejected: {}", news.getId());
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            Collections.sort(batch, NEWEST_FIRST);
+            snapshot = merge(snapshot, batch);
+        } finally {
+            writer.unlock();
+        }
+    }
+
+    /**
+     * Merge the current snapshot with the (sorted) batch in a new array.
+     */
+    private static News[] merge(final News[] current, final List<News> batch) {
+        final News[] merged = new News[current.length + batch.size()];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < current.length && j < batch.size()) {
+            merged[k++] = NEWEST_FIRST.compare(current[i], batch.get(j)) <= 0 ? current[i++] : batch.get(j++);
+        }
+        while (i < current.length) {
+            merged[k++] = current[i++];
+        }
+        while (j < batch.size()) {
+            merged[k++] = batch.get(j++);
+        }
+        return merged;
+    }
+}
@@ -4,7 +4,6 @@ import com.github.javafaker.Faker;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.threeten.bp.ZoneId;
 import org.threeten.bp.ZonedDateTime;
 
 import java.util.ArrayList;
@@ -14,6 +13,8 @@ import java.util.List;
 
 
 import cl.ucn.disc.dsm.dduarte.news.model.News;
+import cl.ucn.disc.dsm.dduarte.news.utils.Dates;
+import cl.ucn.disc.dsm.dduarte.news.utils.LongHashSet;
 
 /**
  * The Faker implementation of {@link Contracts}
@@ -31,11 +32,16 @@ public final class ContractsImplFaker implements Contracts {
      */
     private final List<News> news = new ArrayList<>();
 
+    /**
+     * The ids of the news (to reject the duplicated).
+     */
+    private final LongHashSet ids = new LongHashSet();
+
     public ContractsImplFaker() {
         final Faker faker = Faker.instance();
 
         for(int i = 0; i<5; i++){
-            this.news.add(new News(
+            this.saveNews(new News(
                 //Integer.toUnsignedLong(1),
                 faker.book().title(),
                 faker.name().username(),
@@ -44,7 +50,7 @@ public final class ContractsImplFaker implements Contracts {
                 faker.internet().avatar(),
                 faker.harryPotter().quote(),
                 faker.lorem().paragraph(3),
-                ZonedDateTime.now(ZoneId.of("-3"))
+                ZonedDateTime.now(Dates.getZone())
             ));
 
         }
@@ -60,9 +66,9 @@ public final class ContractsImplFaker implements Contracts {
 
 
     @Override
-    public List<News> retrieveNews(final Integer size) {
-        //The last "size" elements.
-        return news.subList(news.size() - size, news.size());
+    public synchronized List<News> retrieveNews(final Integer size) {
+        //The newest "size" elements (the order of insertion isn't the publishedAt).
+        return NewsTopK.select(news, size);
     }
 
     /**
@@ -70,8 +76,12 @@ public final class ContractsImplFaker implements Contracts {
      * @param news to save
      */
     @Override
-    public void saveNews (final News news){
-        //Fixme: Don't allow duplicated!!
+    public synchronized void saveNews (final News news){
+        // Don't allow duplicated
+        if (!this.ids.add(news.getLongId())) {
+            log.debug("Duplicated news rejected: {}", news.getId());
+            return;
+        }
         this.news.add(news);
     }
 
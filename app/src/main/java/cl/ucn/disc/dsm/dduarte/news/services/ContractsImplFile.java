@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.threeten.bp.ZonedDateTime;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+import cl.ucn.disc.dsm.dduarte.news.utils.LongHashSet;
+import cl.ucn.disc.dsm.dduarte.news.utils.Validation;
+
+/**
+ * The durable implementation of {@link Contracts}: an append-only file of batches.
+ * <p>
+ * Each batch is written as one record (length + crc32 + news) and synced to disk, so a batch is
+ * saved complete or not saved at all (a broken tail is discarded when the file is read).
+ * The indexes (id and publishedAt) are rebuilt in memory the first time the file is used (so the
+ * constructor can be called in the main thread).
+ *
+ * @author Diego Duarte Diaz.
+ */
+public final class ContractsImplFile implements Contracts {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(ContractsImplFile.class);
+
+    /**
+     * The order of the index: publishedAt (newest first) and then id.
+     */
+    private static final Comparator<News> NEWEST_FIRST = (n1, n2) -> {
+        int compare = Long.compare(n2.getPublishedAtMillis(), n1.getPublishedAtMillis());
+        return compare != 0 ? compare : Long.compare(n1.getLongId(), n2.getLongId());
+    };
+
+    /**
+     * The size of the header of the record: length + crc.
+     */
+    private static final int HEADER = 4 + 8;
+
+    /**
+     * The file.
+     */
+    private final File file;
+
+    /**
+     * The index by id.
+     */
+    private final LongHashSet ids = new LongHashSet();
+
+    /**
+     * The index by publishedAt.
+     */
+    private final TreeSet<News> byPublishedAt = new TreeSet<>(NEWEST_FIRST);
+
+    /**
+     * True if the file was read.
+     */
+    private boolean loaded;
+
+    /**
+     * The Constructor: create the directory of the file (the indexes are loaded when used).
+     *
+     * @param file to use.
+     * @throws IOException in case of error.
+     */
+    public ContractsImplFile(final File file) throws IOException {
+        Validation.notNull(file, "file");
+        this.file = file;
+        final File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Can't create the directory: " + parent);
+        }
+    }
+
+    /**
+     * Get the newest News.
+     *
+     * @param size size of the list.
+     * @return the List of News (newest first).
+     */
+    @Override
+    public synchronized List<News> retrieveNews(final Integer size) {
+        Validation.notNull(size, "size");
+        load();
+        final List<News> news = new ArrayList<>(Math.min(size, byPublishedAt.size()));
+        for (News n : byPublishedAt) {
+            if (news.size() >= size) {
+                break;
+            }
+            news.add(n);
+        }
+        return news;
+    }
+
+    /**
+     * Get the newest News published since one moment.
+     *
+     * @param since the oldest publishedAt accepted (inclusive).
+     * @param size max size of the list.
+     * @return the List of News (newest first).
+     */
+    public synchronized List<News> retrieveNews(final ZonedDateTime since, final int size) {
+        Validation.notNull(since, "since");
+        load();
+        final List<News> news = new ArrayList<>();
+        for (News n : byPublishedAt) {
+            if (news.size() >= size || n.getPublishedAt().isBefore(since)) {
+                break;
+            }
+            news.add(n);
+        }
+        return news;
+    }
+
+    /**
+     * Save one News.
+     *
+     * @param news to save
+     */
+    @Override
+    public void saveNews(final News news) {
+        Validation.notNull(news, "news");
+        saveNews(Collections.singletonList(news));
+    }
+
+    /**
+     * Save a batch of News in one record (the duplicated are ignored).
+     *
+     * @param news to save
+     */
+    @Override
+    public synchronized void saveNews(final List<News> news) {
+        Validation.notNull(news, "news");
+        load();
+
+        // The new ones
+        final List<News> batch = new ArrayList<>(news.size());
+        final LongHashSet batchIds = new LongHashSet(news.size());
+        for (News n : news) {
+            if (!ids.contains(n.getLongId()) && batchIds.add(n.getLongId())) {
+                batch.add(n);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            append(batch);
+        } catch (IOException ex) {
+            log.error("Can't save the news", ex);
+            throw new RuntimeException(ex);
+        }
+
+        // Update the indexes
+        for (News n : batch) {
+            ids.add(n.getLongId());
+            byPublishedAt.add(n);
+        }
+    }
+
+    /**
+     * @return the number of news saved.
+     */
+    public synchronized int size() {
+        load();
+        return ids.size();
+    }
+
+    /**
+     * Append the batch as one record and sync the file.
+     */
+    private void append(final List<News> batch) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        NewsCodec.writeList(new DataOutputStream(bytes), batch);
+        final byte[] payload = bytes.toByteArray();
+
+        final CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+
+        try (FileOutputStream fos = new FileOutputStream(file, true)) {
+            final DataOutputStream out = new DataOutputStream(fos);
+            out.writeInt(payload.length);
+            out.writeLong(crc.getValue());
+            out.write(payload);
+            out.flush();
+            fos.getFD().sync();
+        }
+    }
+
+    /**
+     * Read the file (only the first time).
+     */
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        try {
+            read();
+        } catch (IOException ex) {
+            log.error("Can't read the news", ex);
+            throw new RuntimeException(ex);
+        }
+        loaded = true;
+    }
+
+    /**
+     * Read all the records, discarding the broken tail (a batch interrupted by the death of the process).
+     */
+    private void read() throws IOException {
+        if (!file.exists()) {
+            return;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            final long length = raf.length();
+            long position = 0;
+            while (position + HEADER <= length) {
+                raf.seek(position);
+                final int size = raf.readInt();
+                final long checksum = raf.readLong();
+                if (size < 0 || position + HEADER + size > length) {
+                    break;
+                }
+                final byte[] payload = new byte[size];
+                raf.readFully(payload);
+
+                final CRC32 crc = new CRC32();
+                crc.update(payload, 0, size);
+                if (crc.getValue() != checksum) {
+                    break;
+                }
+
+                for (News n : NewsCodec.readList(new DataInputStream(new ByteArrayInputStream(payload)))) {
+                    if (ids.add(n.getLongId())) {
+                        byPublishedAt.add(n);
+                    }
+                }
+                position += HEADER + size;
+            }
+            if (position < length) {
+                log.warn("Discarding {} bytes of broken records in {}", length - position, file);
+                raf.setLength(position);
+            }
+        }
+        log.debug("Loaded {} news from {}", ids.size(), file);
+    }
+}
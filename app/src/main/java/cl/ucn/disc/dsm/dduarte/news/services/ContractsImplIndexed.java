@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import java.util.List;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+import cl.ucn.disc.dsm.dduarte.news.utils.Validation;
+
+/**
+ * The {@link Contracts} with full-text search (Decorator pattern): the news retrieved or saved
+ * are added to a {@link NewsIndex}.
+ *
+ * @author Diego Duarte Diaz.
+ */
+public final class ContractsImplIndexed implements Contracts {
+
+    /**
+     * The Contracts to decorate.
+     */
+    private final Contracts contracts;
+
+    /**
+     * The index.
+     */
+    private final NewsIndex index;
+
+    /**
+     * The Constructor.
+     *
+     * @param contracts to decorate.
+     */
+    public ContractsImplIndexed(final Contracts contracts) {
+        this(contracts, new NewsIndex());
+    }
+
+    /**
+     * The Constructor.
+     *
+     * @param contracts to decorate.
+     * @param index to use.
+     */
+    public ContractsImplIndexed(final Contracts contracts, final NewsIndex index) {
+        Validation.notNull(contracts, "contracts");
+        Validation.notNull(index, "index");
+        this.contracts = contracts;
+        this.index = index;
+    }
+
+    /**
+     * Get the list of News from the delegate, indexing them.
+     *
+     * @param size size of the list.
+     * @return the List of News.
+     */
+    @Override
+    public List<News> retrieveNews(final Integer size) {
+        final List<News> news = this.contracts.retrieveNews(size);
+        this.index.addAll(news);
+        return news;
+    }
+
+    /**
+     * Save one News into the delegate and the index.
+     *
+     * @param news to save.
+     */
+    @Override
+    public void saveNews(final News news) {
+        this.contracts.saveNews(news);
+        this.index.add(news);
+    }
+
+    /**
+     * Save a batch of News into the delegate and the index.
+     *
+     * @param news to save.
+     */
+    @Override
+    public void saveNews(final List<News> news) {
+        this.contracts.saveNews(news);
+        this.index.addAll(news);
+    }
+
+    /**
+     * Search the news retrieved or saved.
+     *
+     * @param query the words to search.
+     * @param size the max number of news.
+     * @return the List of News (the best first).
+     */
+    public List<News> search(final String query, final int size) {
+        return this.index.search(query, size);
+    }
+
+    /**
+     * Search the news retrieved or saved, the words of the query as prefixes (search as you type).
+     *
+     * @param query the words to search.
+     * @param size the max number of news.
+     * @return the List of News (the best first).
+     */
+    public List<News> searchPrefix(final String query, final int size) {
+        return this.index.searchPrefix(query, size);
+    }
+}
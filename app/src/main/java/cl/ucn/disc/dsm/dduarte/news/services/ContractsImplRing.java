@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.RandomAccess;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+import cl.ucn.disc.dsm.dduarte.news.utils.LongHashSet;
+import cl.ucn.disc.dsm.dduarte.news.utils.Validation;
+
+/**
+ * The bounded implementation of {@link Contracts}: a ring of the latest saved news.
+ * <p>
+ * The memory is fixed by the capacity (the ring and the ids of the news in it): when full, each
+ * new news replaces the oldest saved one. The news are kept in order of arrival (a batch by
+ * publishedAt, the oldest first) and retrieveNews returns the latest ones as a view of the ring,
+ * without copy.
+ *
+ * @author Diego Duarte Diaz.
+ */
+public final class ContractsImplRing implements Contracts {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(ContractsImplRing.class);
+
+    /**
+     * The order of a batch: publishedAt (the oldest first).
+     */
+    private static final Comparator<News> OLDEST_FIRST = (n1, n2) -> Long.compare(n1.getPublishedAtMillis(), n2.getPublishedAtMillis());
+
+    /**
+     * The ring.
+     */
+    private final News[] ring;
+
+    /**
+     * The ids of the news in the ring (to reject the duplicated).
+     */
+    private final LongHashSet ids;
+
+    /**
+     * The number of news saved since the creation (the next one goes to written % capacity).
+     */
+    private long written;
+
+    /**
+     * The Constructor.
+     *
+     * @param capacity the max number of news.
+     */
+    public ContractsImplRing(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Error: capacity need to be >0");
+        }
+        this.ring = new News[capacity];
+        this.ids = new LongHashSet(capacity);
+    }
+
+    /**
+     * Get the latest News. The list is a view of the ring: reading a news replaced after this call
+     * throws {@link ConcurrentModificationException} (copy the list to keep it).
+     *
+     * @param size size of the list.
+     * @return the List of News (the latest first).
+     */
+    @Override
+    public synchronized List<News> retrieveNews(final Integer size) {
+        Validation.notNull(size, "size");
+        if (size < 0) {
+            throw new IllegalArgumentException("Error: size need to be >=0");
+        }
+        return new View(written, Math.min(size, size()));
+    }
+
+    /**
+     * Save one News (the duplicated are rejected).
+     *
+     * @param news to save.
+     */
+    @Override
+    public void saveNews(final News news) {
+        Validation.notNull(news, "news");
+        saveNews(Collections.singletonList(news));
+    }
+
+    /**
+     * Save a batch of News (the duplicated are rejected). If the batch is bigger than the
+     * capacity only the newest are saved.
+     *
+     * @param news to save.
+     */
+    @Override
+    public synchronized void saveNews(final List<News> news) {
+        Validation.notNull(news, "news");
+
+        // The new ones
+        final List<News> batch = new ArrayList<>(news.size());
+        final LongHashSet batchIds = new LongHashSet(news.size());
+        for (News n : news) {
+            if (n != null && !ids.contains(n.getLongId()) && batchIds.add(n.getLongId())) {
+                batch.add(n);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        Collections.sort(batch, OLDEST_FIRST);
+
+        final int first = Math.max(0, batch.size() - ring.length);
+        for (int i = first; i < batch.size(); i++) {
+            append(batch.get(i));
+        }
+        log.debug("Saved {} news, {} in the ring.", batch.size() - first, size());
+    }
+
+    /**
+     * @return the number of news.
+     */
+    public synchronized int size() {
+        return (int) Math.min(written, ring.length);
+    }
+
+    /**
+     * @return the max number of news.
+     */
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    /**
+     * Put the news in the next position of the ring (replacing the oldest).
+     */
+    private void append(final News news) {
+        final int position = (int) (written % ring.length);
+        final News oldest = ring[position];
+        if (oldest != null) {
+            ids.remove(oldest.getLongId());
+        }
+        ring[position] = news;
+        ids.add(news.getLongId());
+        written++;
+    }
+
+    /**
+     * Get the news saved in the sequence.
+     */
+    private synchronized News get(final long sequence) {
+        if (written - sequence > ring.length) {
+            throw new ConcurrentModificationException("The news was replaced: " + sequence);
+        }
+        return ring[(int) (sequence % ring.length)];
+    }
+
+    /**
+     * The latest news until one moment (the latest first).
+     */
+    private final class View extends AbstractList<News> implements RandomAccess {
+
+        /**
+         * The written of the moment.
+         */
+        private final long end;
+
+        /**
+         * The number of news.
+         */
+        private final int size;
+
+        View(final long end, final int size) {
+            this.end = end;
+            this.size = size;
+        }
+
+        @Override
+        public News get(final int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+            }
+            return ContractsImplRing.this.get(end - 1 - index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
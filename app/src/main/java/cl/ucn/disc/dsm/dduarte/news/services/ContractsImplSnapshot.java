@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+import cl.ucn.disc.dsm.dduarte.news.utils.Validation;
+
+/**
+ * Keep the last news retrieved in a {@link NewsSnapshot} (Decorator pattern) to show them
+ * in the first frame of the next launch, before reading the store.
+ *
+ * @author Diego Duarte Diaz.
+ */
+public final class ContractsImplSnapshot implements Contracts {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(ContractsImplSnapshot.class);
+
+    /**
+     * The source of the news.
+     */
+    private final Contracts contracts;
+
+    /**
+     * The file of the snapshot.
+     */
+    private final File file;
+
+    /**
+     * The news waiting to be written (only the last one is written).
+     */
+    private final AtomicReference<List<News>> pending = new AtomicReference<>();
+
+    /**
+     * The reader and the writer of the snapshot.
+     */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "news-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The Constructor.
+     *
+     * @param contracts to decorate.
+     * @param file of the snapshot.
+     */
+    public ContractsImplSnapshot(final Contracts contracts, final File file) {
+        Validation.notNull(contracts, "contracts");
+        Validation.notNull(file, "file");
+        this.contracts = contracts;
+        this.file = file;
+    }
+
+    /**
+     * Read the news of the last snapshot in background (out of the main thread).
+     *
+     * @return the future list of news (empty if there isn't a snapshot or it can't be read).
+     */
+    public CompletableFuture<List<News>> restoreAsync() {
+        return CompletableFuture.supplyAsync(this::restore, executor);
+    }
+
+    /**
+     * Read the news of the last snapshot (memory-mapped, without JSON).
+     *
+     * @return the list of news (empty if there isn't a snapshot or it can't be read).
+     */
+    public List<News> restore() {
+        try {
+            final NewsSnapshot snapshot = NewsSnapshot.read(file);
+            return snapshot == null ? Collections.emptyList() : snapshot.getNews();
+        } catch (IOException ex) {
+            log.warn("Can't read the snapshot {}", file, ex);
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Get the list of News from the delegate and write the snapshot in background.
+     *
+     * @param size size of the list.
+     * @return the List of News.
+     */
+    @Override
+    public List<News> retrieveNews(final Integer size) {
+        final List<News> news = contracts.retrieveNews(size);
+        if (!news.isEmpty()) {
+            save(news);
+        }
+        return news;
+    }
+
+    @Override
+    public void saveNews(final News news) {
+        contracts.saveNews(news);
+    }
+
+    @Override
+    public void saveNews(final List<News> news) {
+        contracts.saveNews(news);
+    }
+
+    /**
+     * Write the snapshot (in background, the writes in progress are replaced by the last one).
+     */
+    private void save(final List<News> news) {
+        if (pending.getAndSet(news) != null) {
+            return;
+        }
+        executor.execute(() -> {
+            final List<News> last = pending.getAndSet(null);
+            try {
+                NewsSnapshot.write(file, new NewsSnapshot(System.currentTimeMillis(), last));
+            } catch (IOException | RuntimeException ex) {
+                log.warn("Can't write the snapshot {}", file, ex);
+            }
+        });
+    }
+
+    /**
+     * Wait for the snapshot in progress (testing).
+     */
+    void flush() throws Exception {
+        executor.submit(() -> { }).get();
+    }
+}
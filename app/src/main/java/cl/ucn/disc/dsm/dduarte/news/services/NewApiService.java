@@ -13,14 +13,25 @@
 package cl.ucn.disc.dsm.dduarte.news.services;
 import com.kwabenaberko.newsapilib.models.Article;
 import com.kwabenaberko.newsapilib.models.response.ArticleResponse;
-import com.kwabenaberko.newsapilib.network.APIClient;
 import com.kwabenaberko.newsapilib.network.APIService;
+import java.io.File;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import cl.ucn.disc.dsm.dduarte.news.metrics.Metrics;
+import cl.ucn.disc.dsm.dduarte.news.model.News;
 import cl.ucn.disc.dsm.dduarte.news.utils.Validation;
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
 import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
 /**
  * Naive syncronic NewsApi implementation.
  *
@@ -28,25 +39,98 @@ import retrofit2.Response;
  */
 public final class NewApiService {
 
+    /**
+     * The max size of the http cache: 10 MB.
+     */
+    public static final long CACHE_SIZE = 10L * 1024 * 1024;
+
+    /**
+     * Store the responses with validator (ETag / Last-Modified) and revalidate them in every request
+     * (If-None-Match / If-Modified-Since): an unchanged response costs a 304 without body.
+     */
+    private static final Interceptor REVALIDATE = chain -> {
+        okhttp3.Response response = chain.proceed(chain.request());
+        if (response.isSuccessful() && (response.header("ETag") != null || response.header("Last-Modified") != null)) {
+            return response.newBuilder()
+                    .removeHeader("Pragma")
+                    .header("Cache-Control", "no-cache")
+                    .build();
+        }
+        return response;
+    };
+
     /**
      * The Key.
      */
     private final String apiKey;
 
+    /**
+     * The http client.
+     */
+    private final OkHttpClient client;
+
     /**
      * The sub-service.
      */
     private final APIService apiService;
 
     /**
-     * The Constructor.
+     * The endpoints without conversion (streaming).
+     */
+    private final NewsApiEndpoint endpoint;
+
+    /**
+     * The Constructor (without http cache).
      *
      * @param apiKey to use.
      */
     public NewApiService(String apiKey) {
+        this(apiKey, null);
+    }
+
+    /**
+     * The Constructor.
+     *
+     * @param apiKey to use.
+     * @param cacheDirectory of the http cache (null = without cache).
+     */
+    public NewApiService(String apiKey, File cacheDirectory) {
+        this(apiKey, cacheDirectory, NewsApiEndpoint.BASE_URL);
+    }
+
+    /**
+     * The Constructor with the url of the server (testing).
+     */
+    NewApiService(String apiKey, File cacheDirectory, String baseUrl) {
         Validation.notNull(apiKey, "apiKey");
+        Validation.notNull(baseUrl, "baseUrl");
         this.apiKey = apiKey;
-        this.apiService = APIClient.getAPIService();
+
+        // gzip is requested (and decoded) by OkHttp itself
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(4, 5, TimeUnit.MINUTES))
+                .connectTimeout(10, TimeUnit.SECONDS)
+                .readTimeout(20, TimeUnit.SECONDS)
+                .addNetworkInterceptor(REVALIDATE);
+        if (cacheDirectory != null) {
+            builder.cache(new Cache(cacheDirectory, CACHE_SIZE));
+        }
+        this.client = builder.build();
+
+        Retrofit retrofit = new Retrofit.Builder()
+                .baseUrl(baseUrl)
+                .client(this.client)
+                .addConverterFactory(GsonConverterFactory.create())
+                .build();
+        this.apiService = retrofit.create(APIService.class);
+        this.endpoint = retrofit.create(NewsApiEndpoint.class);
+    }
+
+    /**
+     * @return the http cache (null if without cache).
+     */
+    Cache getCache() {
+        return this.client.cache();
     }
 
     /**
@@ -57,11 +141,84 @@ public final class NewApiService {
      * @throws IOException in case of error.
      */
     public List<Article> getTopHeadlines(final String category, final Integer pageSize) throws IOException {
+        return getTopHeadlines(category, pageSize, 1).getArticles();
+    }
+
+    /**
+     * The getTopHeadLines adaptor (one page).
+     *
+     * @param category to search.
+     * @param pageSize the number of articles by page.
+     * @param page the number of the page (starting at 1).
+     * @return the ArticleResponse with the articles of the page and the totalResults.
+     * @throws IOException in case of error.
+     * @throws NewsApiException in case of error response.
+     */
+    public ArticleResponse getTopHeadlines(final String category, final Integer pageSize, final Integer page) throws IOException {
+        // The map of parameters.
+        Map<String, String> query = query(category, pageSize, page);
+
+        // The response (sincronic!), Gson decode the body inside the call
+        final long start = Metrics.start();
+        Response<ArticleResponse> response = apiService.getTopHeadlines(query).execute();
+        Metrics.record(Metrics.FETCH, start);
+
+        // All ok, return the data
+        if (response.isSuccessful()) {
+            return response.body();
+        }
+
+        throw NewsApiException.of(response);
+    }
+
+    /**
+     * The getTopHeadLines adaptor (one page) decoding the News while the body is read.
+     *
+     * @param category to search.
+     * @param pageSize the number of articles by page.
+     * @param page the number of the page (starting at 1).
+     * @param consumer of each News.
+     * @return the totalResults.
+     * @throws IOException in case of error.
+     * @throws NewsApiException in case of error response.
+     */
+    public int getTopHeadlines(final String category, final Integer pageSize, final Integer page, final Consumer<News> consumer) throws IOException {
+        // The map of parameters.
+        Map<String, String> query = query(category, pageSize, page);
+
+        // The response (sincronic!), the body isn't buffered
+        final long start = Metrics.start();
+        Response<ResponseBody> response = endpoint.getTopHeadlines(query).execute();
+        Metrics.record(Metrics.FETCH, start);
+
+        // All ok, decode the data
+        if (response.isSuccessful()) {
+            final long decode = Metrics.start();
+            try (ResponseBody body = response.body()) {
+                return NewsJsonDecoder.decode(body.charStream(), consumer);
+            } finally {
+                Metrics.record(Metrics.DECODE, decode);
+            }
+        }
+
+        throw NewsApiException.of(response);
+    }
+
+    /**
+     * Build the parameters of top-headlines.
+     *
+     * @return the map of parameters.
+     */
+    private Map<String, String> query(final String category, final Integer pageSize, final Integer page) {
         Validation.notNull(category, "category");
         Validation.notNull(pageSize, "pageSize");
+        Validation.notNull(page, "page");
         if (pageSize < 1) {
             throw new IllegalArgumentException("Error: pageSize need to be >0");
         }
+        if (page < 1) {
+            throw new IllegalArgumentException("Error: page need to be >0");
+        }
         // TODO: Implements the correct map to request parameters.
         // https://newsapi.org/docs/endpoints/top-headlines
 
@@ -76,16 +233,7 @@ public final class NewApiService {
         // query.put("sources", topHeadlinesRequest.getSources());
         // query.put("q", topHeadlinesRequest.getQ());
         query.put("pageSize", pageSize.toString());
-
-        // query.put("page", topHeadlinesRequest.getPage());
-        // The response (sincronic!)
-        Response<ArticleResponse> response = apiService.getTopHeadlines(query).execute();
-
-        // All ok, return the data
-        if (response.isSuccessful()) {
-            return response.body().getArticles();
-        }
-
-        throw new RuntimeException("Error: " + response.code() + " --> " + response.errorBody().string());
+        query.put("page", page.toString());
+        return query;
     }
 }
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import org.threeten.bp.ZonedDateTime;
+import org.threeten.bp.format.DateTimeFormatter;
+import org.threeten.bp.format.DateTimeParseException;
+
+import java.io.IOException;
+
+import okhttp3.ResponseBody;
+import retrofit2.Response;
+
+/**
+ * The error response (non 2xx) of NewsApi.
+ *
+ * @author Diego Duarte Diaz.
+ */
+public class NewsApiException extends RuntimeException {
+
+    /**
+     * The version of the serialized form.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The http code of too many requests.
+     */
+    public static final int TOO_MANY_REQUESTS = 429;
+
+    /**
+     * The http code.
+     */
+    private final int code;
+
+    /**
+     * The time to wait before the next request (millis, -1 = unknown).
+     */
+    private final long retryAfter;
+
+    /**
+     * The Constructor.
+     *
+     * @param code the http code.
+     * @param body the error body.
+     * @param retryAfter the time to wait before the next request (millis, -1 = unknown).
+     */
+    public NewsApiException(final int code, final String body, final long retryAfter) {
+        super("Error: " + code + " --> " + body);
+        this.code = code;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Build the exception from the response.
+     *
+     * @param response with error.
+     * @return the exception.
+     * @throws IOException in case of error reading the body.
+     */
+    static NewsApiException of(final Response<?> response) throws IOException {
+        final ResponseBody body = response.errorBody();
+        return new NewsApiException(response.code(), body == null ? "" : body.string(),
+                parseRetryAfter(response.headers().get("Retry-After"), System.currentTimeMillis()));
+    }
+
+    /**
+     * Parse the Retry-After header: seconds or http date.
+     *
+     * @param value of the header (nullable).
+     * @param now the current time (epoch millis).
+     * @return the time to wait (millis, -1 = unknown).
+     */
+    static long parseRetryAfter(final String value, final long now) {
+        if (value == null || value.trim().isEmpty()) {
+            return -1;
+        }
+        try {
+            return Math.max(0, Long.parseLong(value.trim()) * 1000);
+        } catch (NumberFormatException ex) {
+            // Not seconds, the date?
+        }
+        try {
+            final long date = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return Math.max(0, date - now);
+        } catch (DateTimeParseException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * @return the http code.
+     */
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * @return the time to wait before the next request (millis, -1 = unknown).
+     */
+    public long getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * @return true if the quota was exceeded (429).
+     */
+    public boolean isRateLimited() {
+        return code == TOO_MANY_REQUESTS;
+    }
+}
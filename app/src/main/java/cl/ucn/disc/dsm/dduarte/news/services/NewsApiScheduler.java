@@ -0,0 +1,526 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+import cl.ucn.disc.dsm.dduarte.news.utils.Validation;
+
+/**
+ * Client side scheduler in front of {@link NewApiService} to stay inside the quota of NewsApi.
+ * <p>
+ * One thread takes the requests in order and each one is sent (concurrently) when there is a token:
+ * <ul>
+ *     <li>Token bucket: {@code capacity} requests in burst, one more every {@code refill} millis.</li>
+ *     <li>The identical requests inside the {@code window} are coalesced into only one.</li>
+ *     <li>The interactive requests go before the background ones.</li>
+ *     <li>A 429 stop all the requests for Retry-After (and the request is retried).</li>
+ *     <li>A request waiting without callers (all of them cancelled) is discarded.</li>
+ * </ul>
+ *
+ * @author Diego Duarte Diaz.
+ */
+public final class NewsApiScheduler {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(NewsApiScheduler.class);
+
+    /**
+     * The priority of the request.
+     */
+    public enum Priority {
+        /**
+         * The user is waiting (ex: the activity).
+         */
+        INTERACTIVE,
+        /**
+         * Nobody is waiting (ex: the sync).
+         */
+        BACKGROUND
+    }
+
+    /**
+     * Default burst: 10 requests.
+     */
+    public static final int DEFAULT_CAPACITY = 10;
+
+    /**
+     * Default refill: 100 requests by day (the developer plan).
+     */
+    public static final long DEFAULT_REFILL = TimeUnit.DAYS.toMillis(1) / 100;
+
+    /**
+     * Default coalescing window: 1 minute.
+     */
+    public static final long DEFAULT_WINDOW = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * The wait after a 429 without Retry-After: 1 minute.
+     */
+    public static final long DEFAULT_RETRY_AFTER = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * Max number of retries of a request after a 429.
+     */
+    public static final int MAX_RETRIES = 3;
+
+    /**
+     * The connection to NewsApi.
+     */
+    private final NewApiService newsApiService;
+
+    /**
+     * The max number of tokens.
+     */
+    private final int capacity;
+
+    /**
+     * The time to get one token (millis).
+     */
+    private final long refill;
+
+    /**
+     * The coalescing window (millis).
+     */
+    private final long window;
+
+    /**
+     * The tokens available (guarded by this).
+     */
+    private double tokens;
+
+    /**
+     * The last refill of the bucket (millis, guarded by this).
+     */
+    private long refilledAt;
+
+    /**
+     * No requests before this time: Retry-After (millis, guarded by this).
+     */
+    private long blockedUntil;
+
+    /**
+     * The requests waiting: priority and then arrival.
+     */
+    private final PriorityBlockingQueue<Task<?>> queue = new PriorityBlockingQueue<>();
+
+    /**
+     * The requests sent or waiting, by key (coalescing).
+     */
+    private final Map<Object, Task<?>> tasks = new HashMap<>();
+
+    /**
+     * The arrival of the requests.
+     */
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * The thread that takes the requests (and waits for the tokens).
+     */
+    private final Thread dispatcher;
+
+    /**
+     * The threads that send the requests.
+     */
+    private final ExecutorService workers;
+
+    /**
+     * The Constructor with the defaults values of the plan.
+     *
+     * @param newsApiService to use.
+     */
+    public NewsApiScheduler(final NewApiService newsApiService) {
+        this(newsApiService, DEFAULT_CAPACITY, DEFAULT_REFILL, DEFAULT_WINDOW);
+    }
+
+    /**
+     * The Constructor.
+     *
+     * @param newsApiService to use.
+     * @param capacity the max number of requests in burst.
+     * @param refill the time to get one more request (millis).
+     * @param window the coalescing window (millis).
+     */
+    public NewsApiScheduler(final NewApiService newsApiService, final int capacity, final long refill, final long window) {
+        Validation.notNull(newsApiService, "newsApiService");
+        if (capacity < 1 || refill < 1 || window < 0) {
+            throw new IllegalArgumentException("Error: capacity and refill need to be >0 and window >=0");
+        }
+        this.newsApiService = newsApiService;
+        this.capacity = capacity;
+        this.refill = refill;
+        this.window = window;
+        this.tokens = capacity;
+        this.refilledAt = now();
+
+        final AtomicInteger counter = new AtomicInteger();
+        this.workers = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "news-api-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher = new Thread(this::dispatch, "news-api-scheduler");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Get the top headlines (Article -> News while reading the body).
+     *
+     * @param category to search.
+     * @param pageSize the number of news.
+     * @param page the number of the page.
+     * @param priority of the request.
+     * @return the future list of news (unmodifiable).
+     */
+    public CompletableFuture<List<News>> getTopHeadlines(final String category, final int pageSize, final int page, final Priority priority) {
+        return submit("news|" + category + "|" + pageSize + "|" + page, priority, () -> {
+            final List<News> news = new ArrayList<>(pageSize);
+            newsApiService.getTopHeadlines(category, pageSize, page, news::add);
+            return Collections.unmodifiableList(news);
+        });
+    }
+
+    /**
+     * Get the top headlines delivering each News to the consumer while the body is read (in the
+     * thread of the request). Only coalesced with the requests of the same consumer (ex: to upgrade
+     * the priority).
+     *
+     * @param category to search.
+     * @param pageSize the number of news.
+     * @param page the number of the page.
+     * @param priority of the request.
+     * @param consumer of each News.
+     * @return the future totalResults.
+     */
+    public CompletableFuture<Integer> getTopHeadlines(final String category, final int pageSize, final int page, final Priority priority,
+                                                      final Consumer<News> consumer) {
+        Validation.notNull(consumer, "consumer");
+        return submit(Arrays.asList("stream", category, pageSize, page, consumer), priority,
+                () -> newsApiService.getTopHeadlines(category, pageSize, page, consumer));
+    }
+
+    /**
+     * @return the number of requests waiting.
+     */
+    public int getPending() {
+        return queue.size();
+    }
+
+    /**
+     * Stop the dispatcher, the requests waiting are cancelled.
+     */
+    public void shutdown() {
+        dispatcher.interrupt();
+        workers.shutdown();
+        final List<Task<?>> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        for (Task<?> task : pending) {
+            task.future.cancel(false);
+        }
+    }
+
+    /**
+     * Queue the request or join the identical one inside the window.
+     *
+     * @return the future of the caller (cancel it cancels the shared request only if is the last caller
+     * and the request wasn't sent).
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> submit(final Object key, final Priority priority, final Callable<T> call) {
+        Validation.notNull(priority, "priority");
+
+        final Task<T> task;
+        boolean upgrade = false;
+        synchronized (tasks) {
+            final Task<?> shared = tasks.get(key);
+            if (shared != null && shared.reusable(now())) {
+                log.debug("Coalescing the request {}", key);
+                task = (Task<T>) shared;
+                upgrade = priority.compareTo(task.priority) < 0;
+                task.callers++;
+            } else {
+                evict();
+                task = new Task<>(key, priority, sequence.incrementAndGet(), call);
+                task.callers++;
+                tasks.put(key, task);
+                queue.add(task);
+            }
+        }
+
+        // The interactive request can't wait behind the background ones
+        if (upgrade) {
+            synchronized (task) {
+                final boolean queued = queue.remove(task);
+                task.priority = priority;
+                if (queued) {
+                    queue.add(task);
+                }
+            }
+        }
+        final CompletableFuture<T> caller = task.future.thenApply(Function.identity());
+        caller.whenComplete((value, error) -> {
+            if (caller.isCancelled()) {
+                detach(task);
+            }
+        });
+        return caller;
+    }
+
+    /**
+     * One caller less: the last one cancels the request if it wasn't sent (no quota used).
+     */
+    private void detach(final Task<?> task) {
+        synchronized (tasks) {
+            if (--task.callers > 0) {
+                return;
+            }
+            synchronized (task) {
+                if (task.started) {
+                    return;
+                }
+                queue.remove(task);
+                task.future.cancel(false);
+            }
+            tasks.remove(task.key, task);
+        }
+        log.debug("Request {} without callers, cancelled.", task.key);
+    }
+
+    /**
+     * Remove the requests out of the window (guarded by tasks).
+     */
+    private void evict() {
+        final long now = now();
+        final Iterator<Task<?>> iterator = tasks.values().iterator();
+        while (iterator.hasNext()) {
+            if (!iterator.next().reusable(now)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * The loop of the dispatcher: take, wait for a token and send (in other thread).
+     */
+    private void dispatch() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                final Task<?> task = queue.take();
+                if (task.future.isDone()) {
+                    continue;
+                }
+                final long wait = acquire();
+                if (wait > 0) {
+                    // Back to the queue: other request with more priority can arrive while waiting
+                    requeue(task);
+                    log.debug("Without quota, waiting {} ms", wait);
+                    Thread.sleep(wait);
+                    continue;
+                }
+                workers.execute(() -> run(task));
+            } catch (InterruptedException | RejectedExecutionException ex) {
+                // Shutdown
+                return;
+            }
+        }
+    }
+
+    /**
+     * Send the request and complete the future.
+     */
+    private <T> void run(final Task<T> task) {
+        synchronized (task) {
+            // Cancelled while waiting for the token
+            if (task.future.isDone()) {
+                return;
+            }
+            task.started = true;
+        }
+        try {
+            task.complete(task.call.call());
+        } catch (NewsApiException ex) {
+            if (ex.isRateLimited()) {
+                block(ex.getRetryAfter());
+                if (task.retries++ < MAX_RETRIES) {
+                    log.warn("Rate limited, retrying {} later", task.key);
+                    requeue(task);
+                    return;
+                }
+            }
+            task.fail(ex);
+        } catch (IOException ex) {
+            task.fail(new RuntimeException(ex));
+        } catch (Exception ex) {
+            task.fail(ex);
+        }
+    }
+
+    /**
+     * Put the task back in the queue (without racing with the upgrade of the priority and the cancel).
+     */
+    private void requeue(final Task<?> task) {
+        synchronized (task) {
+            task.started = false;
+            queue.add(task);
+        }
+    }
+
+    /**
+     * Take one token.
+     *
+     * @return 0 if the token was taken or the time to wait (millis).
+     */
+    private synchronized long acquire() {
+        final long now = now();
+        if (now < blockedUntil) {
+            return blockedUntil - now;
+        }
+        // Refill since the last time
+        tokens = Math.min(capacity, tokens + (double) (now - refilledAt) / refill);
+        refilledAt = now;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil((1 - tokens) * refill));
+    }
+
+    /**
+     * Stop the requests (429): empty bucket and wait the Retry-After.
+     *
+     * @param retryAfter the time to wait (millis, -1 = unknown).
+     */
+    private synchronized void block(final long retryAfter) {
+        final long now = now();
+        blockedUntil = Math.max(blockedUntil, now + (retryAfter >= 0 ? retryAfter : DEFAULT_RETRY_AFTER));
+        tokens = 0;
+        refilledAt = blockedUntil;
+    }
+
+    /**
+     * @return the monotonic time (millis).
+     */
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    /**
+     * One request (shared by the identical ones).
+     */
+    private final class Task<T> implements Comparable<Task<?>> {
+
+        /**
+         * The key to coalesce.
+         */
+        private final Object key;
+
+        /**
+         * The arrival.
+         */
+        private final long sequence;
+
+        /**
+         * The call to NewsApi.
+         */
+        private final Callable<T> call;
+
+        /**
+         * The result shared by all the callers.
+         */
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        /**
+         * The priority (can be upgraded).
+         */
+        private volatile Priority priority;
+
+        /**
+         * The number of retries (only the thread that sends the request).
+         */
+        private int retries;
+
+        /**
+         * The number of callers not cancelled (guarded by tasks).
+         */
+        private int callers;
+
+        /**
+         * True if the request is being sent (guarded by this).
+         */
+        private boolean started;
+
+        /**
+         * When was completed (millis, -1 = not yet).
+         */
+        private volatile long completedAt = -1;
+
+        Task(final Object key, final Priority priority, final long sequence, final Callable<T> call) {
+            this.key = key;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.call = call;
+        }
+
+        /**
+         * @return true if other caller can use this result: in progress or ok inside the window.
+         */
+        boolean reusable(final long now) {
+            if (!future.isDone()) {
+                return true;
+            }
+            return !future.isCompletedExceptionally() && now - completedAt <= window;
+        }
+
+        void complete(final T value) {
+            completedAt = now();
+            future.complete(value);
+        }
+
+        void fail(final Throwable throwable) {
+            completedAt = now();
+            future.completeExceptionally(throwable);
+        }
+
+        @Override
+        public int compareTo(final Task<?> other) {
+            final int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import org.threeten.bp.Instant;
+import org.threeten.bp.ZoneId;
+import org.threeten.bp.ZonedDateTime;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+import cl.ucn.disc.dsm.dduarte.news.utils.Dates;
+
+/**
+ * Binary codec of {@link News} used by the local (disk) implementations of {@link Contracts}.
+ *
+ * @author Diego Duarte Diaz.
+ */
+final class NewsCodec {
+
+    /**
+     * The version of the format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The marker of a null String.
+     */
+    private static final int NULL = -1;
+
+    /**
+     * Utility class.
+     */
+    private NewsCodec() {
+        // Nothing here
+    }
+
+    /**
+     * Write a list of news (header + records).
+     *
+     * @param out to write.
+     * @param news to write.
+     * @throws IOException in case of error.
+     */
+    static void writeList(final DataOutput out, final List<News> news) throws IOException {
+        out.writeInt(VERSION);
+        out.writeInt(news.size());
+        for (News n : news) {
+            write(out, n);
+        }
+    }
+
+    /**
+     * Read a list of news written by {@link #writeList(DataOutput, List)}.
+     *
+     * @param in to read.
+     * @return the List of News.
+     * @throws IOException in case of error or unknown version.
+     */
+    static List<News> readList(final DataInput in) throws IOException {
+        final int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unknown version: " + version);
+        }
+        final int size = in.readInt();
+        if (size < 0) {
+            throw new IOException("Wrong size: " + size);
+        }
+        final List<News> news = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            news.add(read(in));
+        }
+        return news;
+    }
+
+    /**
+     * Write one News.
+     *
+     * @param out to write.
+     * @param news to write.
+     * @throws IOException in case of error.
+     */
+    static void write(final DataOutput out, final News news) throws IOException {
+        writeString(out, news.getTitle());
+        writeString(out, news.getSource());
+        writeString(out, news.getAuthor());
+        writeString(out, news.getUrl());
+        writeString(out, news.getUrlImage());
+        writeString(out, news.getDescription());
+        writeString(out, news.getContent());
+        out.writeLong(news.getPublishedAtMillis());
+        writeString(out, news.getPublishedAt().getZone().getId());
+    }
+
+    /**
+     * Read one News.
+     *
+     * @param in to read.
+     * @return the News.
+     * @throws IOException in case of error.
+     */
+    static News read(final DataInput in) throws IOException {
+        final String title = readString(in);
+        final String source = readString(in);
+        final String author = readString(in);
+        final String url = readString(in);
+        final String urlImage = readString(in);
+        final String description = readString(in);
+        final String content = readString(in);
+        final long publishedAt = in.readLong();
+        final ZoneId zone = Dates.zoneOf(readString(in));
+
+        // Written by us: already validated (only the id is calculated)
+        return News.trusted(title, source, author, url, urlImage, description, content,
+                ZonedDateTime.ofInstant(Instant.ofEpochMilli(publishedAt), zone));
+    }
+
+    /**
+     * Write a (nullable) String as length + UTF-8 bytes.
+     */
+    private static void writeString(final DataOutput out, final String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Read a (nullable) String written by {@link #writeString(DataOutput, String)}.
+     */
+    private static String readString(final DataInput in) throws IOException {
+        final int length = in.readInt();
+        if (length == NULL) {
+            return null;
+        }
+        if (length < 0) {
+            throw new IOException("Wrong length: " + length);
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
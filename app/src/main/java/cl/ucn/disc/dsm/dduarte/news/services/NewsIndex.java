@@ -0,0 +1,398 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+import cl.ucn.disc.dsm.dduarte.news.utils.LongHashSet;
+import cl.ucn.disc.dsm.dduarte.news.utils.Validation;
+
+/**
+ * Full-text inverted index over the title, description and content of the {@link News}.
+ * <p>
+ * The texts are split in lowercase tokens without accents. Each token has a list of postings
+ * (news + weight, the title weights more). The score of a news is the relevance (the sum of
+ * weight * idf of the tokens of the query) multiplied by the recency: {@code 1 / (1 + age / halfLife)},
+ * the age measured from the newest news indexed.
+ *
+ * @author Diego Duarte Diaz.
+ */
+public final class NewsIndex {
+
+    /**
+     * The default half life of the recency: 1 day.
+     */
+    public static final long DEFAULT_HALF_LIFE = TimeUnit.DAYS.toMillis(1);
+
+    /**
+     * The weight of a token in the title.
+     */
+    private static final int TITLE_WEIGHT = 3;
+
+    /**
+     * The weight of a token in the description or the content.
+     */
+    private static final int TEXT_WEIGHT = 1;
+
+    /**
+     * The min length of a token.
+     */
+    private static final int MIN_TOKEN = 2;
+
+    /**
+     * The half life of the recency (millis).
+     */
+    private final long halfLife;
+
+    /**
+     * The news, by doc number.
+     */
+    private final List<News> docs = new ArrayList<>();
+
+    /**
+     * The publishedAt (epoch millis), by doc number.
+     */
+    private long[] times = new long[1024];
+
+    /**
+     * The newest publishedAt.
+     */
+    private long newest = Long.MIN_VALUE;
+
+    /**
+     * The ids indexed.
+     */
+    private final LongHashSet ids = new LongHashSet();
+
+    /**
+     * The postings by token (sorted, for the prefix search).
+     */
+    private final TreeMap<String, Postings> postings = new TreeMap<>();
+
+    /**
+     * The scores of the current query, by doc number (reused).
+     */
+    private float[] scores = new float[1024];
+
+    /**
+     * The docs with score in the current query (reused).
+     */
+    private int[] touched = new int[1024];
+
+    /**
+     * The Constructor.
+     */
+    public NewsIndex() {
+        this(DEFAULT_HALF_LIFE);
+    }
+
+    /**
+     * The Constructor.
+     *
+     * @param halfLife of the recency (millis).
+     */
+    public NewsIndex(final long halfLife) {
+        if (halfLife <= 0) {
+            throw new IllegalArgumentException("Error: halfLife need to be >0");
+        }
+        this.halfLife = halfLife;
+    }
+
+    /**
+     * Index one News (the duplicated are ignored).
+     *
+     * @param news to index.
+     * @return true if indexed.
+     */
+    public synchronized boolean add(final News news) {
+        Validation.notNull(news, "news");
+        if (!ids.add(news.getLongId())) {
+            return false;
+        }
+
+        final int doc = docs.size();
+        docs.add(news);
+        if (doc == times.length) {
+            times = Arrays.copyOf(times, doc << 1);
+        }
+        times[doc] = news.getPublishedAtMillis();
+        newest = Math.max(newest, times[doc]);
+
+        index(doc, news.getTitle(), TITLE_WEIGHT);
+        index(doc, news.getDescription(), TEXT_WEIGHT);
+        // The NewsApi copy the description into the content: don't count it twice
+        if (news.getContent() != null && !news.getContent().equals(news.getDescription())) {
+            index(doc, news.getContent(), TEXT_WEIGHT);
+        }
+        return true;
+    }
+
+    /**
+     * Index a batch of News (the duplicated are ignored).
+     *
+     * @param news to index.
+     */
+    public synchronized void addAll(final Collection<News> news) {
+        Validation.notNull(news, "news");
+        for (News n : news) {
+            if (n != null) {
+                add(n);
+            }
+        }
+    }
+
+    /**
+     * @return the number of news indexed.
+     */
+    public synchronized int size() {
+        return docs.size();
+    }
+
+    /**
+     * Search the news with the tokens of the query.
+     *
+     * @param query to search.
+     * @param size the max number of news.
+     * @return the List of News (the best first).
+     */
+    public List<News> search(final String query, final int size) {
+        return search(query, size, false);
+    }
+
+    /**
+     * Search the news with tokens starting with the tokens of the query (search as you type).
+     *
+     * @param query to search.
+     * @param size the max number of news.
+     * @return the List of News (the best first).
+     */
+    public List<News> searchPrefix(final String query, final int size) {
+        return search(query, size, true);
+    }
+
+    /**
+     * Search the news.
+     */
+    private synchronized List<News> search(final String query, final int size, final boolean prefix) {
+        Validation.notNull(query, "query");
+        if (size <= 0) {
+            throw new IllegalArgumentException("Error: size need to be >0");
+        }
+
+        // The postings of the tokens, each one once (repeated tokens or prefixes don't count twice)
+        final Set<Postings> matched = new LinkedHashSet<>();
+        for (String token : new LinkedHashSet<>(tokenize(query, prefix))) {
+            if (prefix) {
+                matched.addAll(postings.subMap(token, true, token + Character.MAX_VALUE, true).values());
+            } else {
+                final Postings p = postings.get(token);
+                if (p != null) {
+                    matched.add(p);
+                }
+            }
+        }
+
+        // Accumulate the relevance of each token
+        int count = 0;
+        for (Postings p : matched) {
+            count = accumulate(p, count);
+        }
+
+        // The best size: relevance * recency, min-heap by score
+        final int k = Math.min(size, count);
+        final int[] heap = new int[k];
+        final float[] heapScores = new float[k];
+        int heapSize = 0;
+        for (int i = 0; i < count; i++) {
+            final int doc = touched[i];
+            final float score = scores[doc] / (1 + (float) (newest - times[doc]) / halfLife);
+            scores[doc] = 0;
+            if (heapSize < k) {
+                heap[heapSize] = doc;
+                heapScores[heapSize] = score;
+                siftUp(heap, heapScores, heapSize++);
+            } else if (score > heapScores[0]) {
+                heap[0] = doc;
+                heapScores[0] = score;
+                siftDown(heap, heapScores, heapSize);
+            }
+        }
+
+        // Best first
+        final News[] result = new News[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            result[i] = docs.get(heap[0]);
+            heap[0] = heap[i];
+            heapScores[0] = heapScores[i];
+            siftDown(heap, heapScores, i);
+        }
+        return Arrays.asList(result);
+    }
+
+    /**
+     * Add the weight * idf of the postings to the scores.
+     *
+     * @return the new count of touched docs.
+     */
+    private int accumulate(final Postings p, int count) {
+        if (scores.length < docs.size()) {
+            scores = Arrays.copyOf(scores, Math.max(docs.size(), scores.length << 1));
+            touched = Arrays.copyOf(touched, scores.length);
+        }
+        final float idf = (float) Math.log(1 + (double) docs.size() / p.size);
+        for (int i = 0; i < p.size; i++) {
+            final int doc = p.docs[i];
+            if (scores[doc] == 0) {
+                touched[count++] = doc;
+            }
+            scores[doc] += p.weights[i] * idf;
+        }
+        return count;
+    }
+
+    /**
+     * Add the tokens of the text to the postings.
+     */
+    private void index(final int doc, final String text, final int weight) {
+        if (text == null) {
+            return;
+        }
+        for (String token : tokenize(text)) {
+            Postings p = postings.get(token);
+            if (p == null) {
+                p = new Postings();
+                postings.put(token, p);
+            }
+            p.add(doc, weight);
+        }
+    }
+
+    /**
+     * Split the text in tokens: lowercase, without accents, letters and digits only.
+     *
+     * @param text to split.
+     * @return the tokens.
+     */
+    static List<String> tokenize(final String text) {
+        return tokenize(text, false);
+    }
+
+    /**
+     * Split the text in tokens: lowercase, without accents, letters and digits only.
+     *
+     * @param text to split.
+     * @param prefix true to keep the last token even if short (the one being typed).
+     * @return the tokens.
+     */
+    static List<String> tokenize(final String text, final boolean prefix) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final String normalized = Normalizer.normalize(text, Normalizer.Form.NFD);
+        final List<String> tokens = new ArrayList<>();
+        final StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= normalized.length(); i++) {
+            final char c = i < normalized.length() ? normalized.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                if (token.length() >= MIN_TOKEN
+                        || prefix && token.length() > 0 && i == normalized.length()) {
+                    tokens.add(token.toString());
+                }
+                token.setLength(0);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Min-heap: move up the element at index.
+     */
+    private static void siftUp(final int[] heap, final float[] scores, int index) {
+        while (index > 0) {
+            final int parent = (index - 1) >>> 1;
+            if (scores[parent] <= scores[index]) {
+                return;
+            }
+            swap(heap, scores, parent, index);
+            index = parent;
+        }
+    }
+
+    /**
+     * Min-heap: move down the root.
+     */
+    private static void siftDown(final int[] heap, final float[] scores, final int size) {
+        int index = 0;
+        while (true) {
+            final int left = 2 * index + 1;
+            if (left >= size) {
+                return;
+            }
+            final int right = left + 1;
+            final int child = right < size && scores[right] < scores[left] ? right : left;
+            if (scores[index] <= scores[child]) {
+                return;
+            }
+            swap(heap, scores, index, child);
+            index = child;
+        }
+    }
+
+    private static void swap(final int[] heap, final float[] scores, final int i, final int j) {
+        final int doc = heap[i];
+        heap[i] = heap[j];
+        heap[j] = doc;
+        final float score = scores[i];
+        scores[i] = scores[j];
+        scores[j] = score;
+    }
+
+    /**
+     * The postings of one token: the docs (ascending) and the weight in each one.
+     */
+    private static final class Postings {
+
+        private int[] docs = new int[4];
+        private int[] weights = new int[4];
+        private int size;
+
+        /**
+         * Add the weight to the doc (the docs are added in order).
+         */
+        void add(final int doc, final int weight) {
+            if (size > 0 && docs[size - 1] == doc) {
+                weights[size - 1] += weight;
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size << 1);
+                weights = Arrays.copyOf(weights, size << 1);
+            }
+            docs[size] = doc;
+            weights[size] = weight;
+            size++;
+        }
+    }
+}
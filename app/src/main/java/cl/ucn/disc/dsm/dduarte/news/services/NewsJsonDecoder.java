@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.Consumer;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+import cl.ucn.disc.dsm.dduarte.news.utils.Validation;
+
+/**
+ * Streaming decoder of the top-headlines response of NewsApi.
+ * <p>
+ * Reads the JSON token by token and builds the {@link News} directly, without the intermediate
+ * ArticleResponse/Article graph. The fields that aren't shown (source.id, content, ..) are skipped.
+ *
+ * @author Diego Duarte Diaz.
+ */
+public final class NewsJsonDecoder {
+
+    /**
+     * Utility class.
+     */
+    private NewsJsonDecoder() {
+        // Nothing here
+    }
+
+    /**
+     * Decode the response.
+     *
+     * @param reader to read (closed at the end).
+     * @param consumer of each News (the invalid articles are repaired or dropped, see {@link ArticleConverter}).
+     * @return the totalResults of the response.
+     * @throws IOException in case of error.
+     */
+    public static int decode(final Reader reader, final Consumer<News> consumer) throws IOException {
+        Validation.notNull(reader, "reader");
+        Validation.notNull(consumer, "consumer");
+
+        int totalResults = 0;
+        try (JsonReader json = new JsonReader(reader)) {
+            json.beginObject();
+            while (json.hasNext()) {
+                switch (json.nextName()) {
+                    case "totalResults":
+                        totalResults = json.nextInt();
+                        break;
+                    case "articles":
+                        json.beginArray();
+                        while (json.hasNext()) {
+                            final News news = readArticle(json);
+                            if (news != null) {
+                                consumer.accept(news);
+                            }
+                        }
+                        json.endArray();
+                        break;
+                    default:
+                        json.skipValue();
+                }
+            }
+            json.endObject();
+        }
+        return totalResults;
+    }
+
+    /**
+     * Read one article.
+     *
+     * @return the News or null.
+     */
+    private static News readArticle(final JsonReader json) throws IOException {
+        String source = null;
+        String author = null;
+        String title = null;
+        String description = null;
+        String url = null;
+        String urlToImage = null;
+        String publishedAt = null;
+
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "source":
+                    source = readSourceName(json);
+                    break;
+                case "author":
+                    author = nextString(json);
+                    break;
+                case "title":
+                    title = nextString(json);
+                    break;
+                case "description":
+                    description = nextString(json);
+                    break;
+                case "url":
+                    url = nextString(json);
+                    break;
+                case "urlToImage":
+                    urlToImage = nextString(json);
+                    break;
+                case "publishedAt":
+                    publishedAt = nextString(json);
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+        json.endObject();
+
+        return ContractImplNewsApi.fields2news(title, source, author, url, urlToImage, description, publishedAt);
+    }
+
+    /**
+     * @return the name of the source ({"id": .., "name": ..}).
+     */
+    private static String readSourceName(final JsonReader json) throws IOException {
+        if (json.peek() == JsonToken.NULL) {
+            json.nextNull();
+            return null;
+        }
+        String name = null;
+        json.beginObject();
+        while (json.hasNext()) {
+            if ("name".equals(json.nextName())) {
+                name = nextString(json);
+            } else {
+                json.skipValue();
+            }
+        }
+        json.endObject();
+        return name;
+    }
+
+    /**
+     * @return the String or null.
+     */
+    private static String nextString(final JsonReader json) throws IOException {
+        if (json.peek() == JsonToken.NULL) {
+            json.nextNull();
+            return null;
+        }
+        return json.nextString();
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+import cl.ucn.disc.dsm.dduarte.news.utils.LongHashSet;
+
+/**
+ * Merge of several lists of News (the newest by publishedAt) and the concurrent fan-out of requests.
+ *
+ * @author Diego Duarte Diaz.
+ */
+final class NewsMerge {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(NewsMerge.class);
+
+    /**
+     * Utility class.
+     */
+    private NewsMerge() {
+        // Nothing here
+    }
+
+    /**
+     * Run the requests concurrently and merge the results. The requests not finished in time (or
+     * with error) are discarded: the result is partial.
+     *
+     * @param executor to run the requests.
+     * @param requests each one returns a list of News.
+     * @param size max size of the result.
+     * @param timeout max time to wait (millis).
+     * @return the newest News, without duplicated (by id).
+     */
+    static List<News> fanOut(final ExecutorService executor, final List<Callable<List<News>>> requests, final int size, final long timeout) {
+        final List<Future<List<News>>> futures;
+        try {
+            futures = executor.invokeAll(requests, timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(ex);
+        }
+
+        final List<List<News>> lists = new ArrayList<>(futures.size());
+        for (Future<List<News>> future : futures) {
+            try {
+                lists.add(future.get());
+            } catch (CancellationException ex) {
+                log.warn("Request timeout ({} ms), partial result.", timeout);
+            } catch (ExecutionException ex) {
+                log.warn("Request error, partial result.", ex.getCause());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(ex);
+            }
+        }
+        return merge(lists, size);
+    }
+
+    /**
+     * Merge the lists keeping the newest (bounded min-heap, see {@link NewsTopK}).
+     *
+     * @param lists of news (in any order).
+     * @param size max size of the result.
+     * @return the newest News (newest first), without duplicated (by id).
+     */
+    static List<News> merge(final List<List<News>> lists, final int size) {
+        int candidates = 0;
+        for (List<News> list : lists) {
+            candidates += list.size();
+        }
+
+        final NewsTopK topK = new NewsTopK(Math.min(size, candidates));
+        final LongHashSet seen = new LongHashSet(candidates);
+        for (List<News> list : lists) {
+            for (int i = 0; i < list.size(); i++) {
+                final News n = list.get(i);
+                if (seen.add(n.getLongId())) {
+                    topK.offer(n);
+                }
+            }
+        }
+        return topK.toList();
+    }
+}
@@ -0,0 +1,378 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+import cl.ucn.disc.dsm.dduarte.news.utils.LongHashSet;
+import cl.ucn.disc.dsm.dduarte.news.utils.Validation;
+
+/**
+ * Page cursor over the top headlines of NewsApi.
+ * <p>
+ * The pages are requested on demand ({@link #loadNext(Callback)}), each News is delivered as soon as
+ * it is decoded (while the body is read) and the next page is prefetched while the current one is
+ * being shown (its news are kept until the page is loaded).
+ *
+ * @author Diego Duarte Diaz.
+ */
+public final class NewsPager {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(NewsPager.class);
+
+    /**
+     * The receiver of the news (called from the background threads, one at time).
+     */
+    public interface Callback {
+
+        /**
+         * @param news converted (and not duplicated).
+         */
+        void onNews(News news);
+
+        /**
+         * @param page loaded.
+         * @param hasMore true if there are more pages to load.
+         */
+        void onPageLoaded(int page, boolean hasMore);
+
+        /**
+         * @param exception in the request of the page.
+         */
+        void onError(RuntimeException exception);
+    }
+
+    /**
+     * The connection to NewsApi (inside the quota).
+     */
+    private final NewsApiScheduler scheduler;
+
+    /**
+     * The category.
+     */
+    private final String category;
+
+    /**
+     * The number of news by page.
+     */
+    private final int pageSize;
+
+    /**
+     * The ids already delivered (guarded by itself: used from the thread of the request).
+     */
+    private final LongHashSet seen = new LongHashSet();
+
+    /**
+     * The wait of the pages (the requests are sent by the scheduler).
+     */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "news-pager");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The next page to deliver.
+     */
+    private int page = 1;
+
+    /**
+     * The number of news received.
+     */
+    private int received = 0;
+
+    /**
+     * The number of articles in NewsApi (unknown before the first page).
+     */
+    private int totalResults = Integer.MAX_VALUE;
+
+    /**
+     * True while a page is being delivered.
+     */
+    private boolean loading = false;
+
+    /**
+     * The next page (prefetch).
+     */
+    private Page prefetch;
+
+    /**
+     * The Constructor.
+     *
+     * @param scheduler to use.
+     * @param category to search.
+     * @param pageSize the number of news by page.
+     */
+    NewsPager(final NewsApiScheduler scheduler, final String category, final int pageSize) {
+        Validation.notNull(scheduler, "scheduler");
+        Validation.notNull(category, "category");
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Error: pageSize need to be >0");
+        }
+        this.scheduler = scheduler;
+        this.category = category;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Start the cursor at other page (ex: the first page is already shown).
+     *
+     * @param page the next page to load.
+     * @param shown the news already shown (to avoid the duplicates).
+     */
+    public synchronized void skipTo(final int page, final Collection<News> shown) {
+        if (page < 1) {
+            throw new IllegalArgumentException("Error: page need to be >0");
+        }
+        this.page = page;
+        this.received = (page - 1) * pageSize;
+        synchronized (seen) {
+            for (News news : shown) {
+                this.seen.add(news.getLongId());
+            }
+        }
+        cancelPrefetch();
+    }
+
+    /**
+     * @return true if there are more pages to load.
+     */
+    public synchronized boolean hasMore() {
+        return received < totalResults;
+    }
+
+    /**
+     * @return true if a page is being delivered.
+     */
+    public synchronized boolean isLoading() {
+        return loading;
+    }
+
+    /**
+     * Load the next page in background. Ignored if a page is being delivered or there aren't more pages.
+     *
+     * @param callback to receive the news.
+     * @return true if the load was started.
+     */
+    public synchronized boolean loadNext(final Callback callback) {
+        Validation.notNull(callback, "callback");
+        if (loading || !hasMore()) {
+            return false;
+        }
+        loading = true;
+
+        // The prefetch in progress is upgraded to interactive (coalesced by the scheduler)
+        final Page current = prefetch != null ? prefetch : new Page(page);
+        prefetch = null;
+        if (!current.isDone()) {
+            current.send(NewsApiScheduler.Priority.INTERACTIVE);
+        }
+
+        executor.execute(() -> deliver(current, callback));
+        return true;
+    }
+
+    /**
+     * Release the threads (and the prefetch not sent).
+     */
+    public synchronized void close() {
+        cancelPrefetch();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Send the news of the page to the callback: the ones received and the next ones while are decoded.
+     */
+    private void deliver(final Page current, final Callback callback) {
+        try {
+            current.attach(callback);
+
+            final int total;
+            try {
+                total = current.request.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                current.request.cancel(false);
+                return;
+            } catch (ExecutionException ex) {
+                final Throwable cause = ex.getCause();
+                callback.onError(cause instanceof RuntimeException ? (RuntimeException) cause : new RuntimeException(cause));
+                return;
+            }
+            callback.onPageLoaded(current.number, finish(current.number, current.getCount(), total));
+        } finally {
+            // Even if the callback fails: the next page can be loaded
+            synchronized (this) {
+                loading = false;
+            }
+        }
+    }
+
+    /**
+     * Update the cursor and launch the prefetch of the next page.
+     *
+     * @return true if there are more pages.
+     */
+    private synchronized boolean finish(final int current, final int news, final int total) {
+        page = current + 1;
+        received += news;
+        // The last page: empty or all the results received
+        totalResults = news == 0 ? received : total;
+        if (hasMore() && !executor.isShutdown()) {
+            // Nobody is waiting for the prefetch (yet)
+            prefetch = new Page(page);
+            prefetch.send(NewsApiScheduler.Priority.BACKGROUND);
+        }
+        return hasMore();
+    }
+
+    /**
+     * Cancel the prefetch (if not sent yet).
+     */
+    private synchronized void cancelPrefetch() {
+        if (prefetch != null) {
+            prefetch.request.cancel(false);
+            prefetch = null;
+        }
+    }
+
+    /**
+     * @return true if the news wasn't delivered before.
+     */
+    private boolean markSeen(final News news) {
+        synchronized (seen) {
+            return seen.add(news.getLongId());
+        }
+    }
+
+    /**
+     * One page: the news are kept until there is a callback, then delivered while are decoded.
+     */
+    private final class Page implements Consumer<News> {
+
+        /**
+         * The number of the page.
+         */
+        private final int number;
+
+        /**
+         * The news received without callback (guarded by this).
+         */
+        private final List<News> buffer = new ArrayList<>();
+
+        /**
+         * The receiver of the news (guarded by this).
+         */
+        private Callback callback;
+
+        /**
+         * The number of news of the page (guarded by this).
+         */
+        private int count;
+
+        /**
+         * The request (the totalResults).
+         */
+        private volatile CompletableFuture<Integer> request;
+
+        Page(final int number) {
+            this.number = number;
+        }
+
+        /**
+         * Request the page (or upgrade the priority of the request in progress).
+         */
+        void send(final NewsApiScheduler.Priority priority) {
+            log.debug("Requesting the page {} of {} ({})", number, category, priority);
+            final CompletableFuture<Integer> previous = request;
+            if (previous != null && previous.isCompletedExceptionally()) {
+                // The page again (the previous request failed in the middle)
+                synchronized (this) {
+                    buffer.clear();
+                    count = 0;
+                }
+            }
+            request = scheduler.getTopHeadlines(category, pageSize, number, priority, this);
+            if (previous != null) {
+                // Only one caller by page
+                previous.cancel(false);
+            }
+        }
+
+        /**
+         * @return true if the page was received.
+         */
+        boolean isDone() {
+            return request != null && request.isDone() && !request.isCompletedExceptionally();
+        }
+
+        /**
+         * Deliver the news received and the next ones to the callback.
+         */
+        synchronized void attach(final Callback callback) {
+            this.callback = callback;
+            for (News news : buffer) {
+                deliver(news);
+            }
+            buffer.clear();
+        }
+
+        /**
+         * @return the number of news of the page.
+         */
+        synchronized int getCount() {
+            return count;
+        }
+
+        /**
+         * @param news decoded (in the thread of the request).
+         */
+        @Override
+        public synchronized void accept(final News news) {
+            count++;
+            if (callback == null) {
+                buffer.add(news);
+            } else {
+                deliver(news);
+            }
+        }
+
+        /**
+         * Send the news (if not delivered before).
+         */
+        private void deliver(final News news) {
+            if (markSeen(news)) {
+                callback.onNews(news);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "page " + number + " of " + category;
+        }
+    }
+}
@@ -0,0 +1,402 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import org.threeten.bp.Instant;
+import org.threeten.bp.ZoneId;
+import org.threeten.bp.ZonedDateTime;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+import cl.ucn.disc.dsm.dduarte.news.utils.Dates;
+import cl.ucn.disc.dsm.dduarte.news.utils.Validation;
+
+/**
+ * A list of News saved at some time, in a compact binary file (read without any JSON parse).
+ * <p>
+ * The format (version 1):
+ * <pre>
+ * int magic ("NWSS"), int version, long timestamp, varint count,
+ * varint zones, (string zone)*,
+ * count * (long id, zigzag varint publishedAt - previous publishedAt, varint zone,
+ *          string title, source, author, url, urlImage, description, content)
+ * </pre>
+ * The strings are varint (length + 1) + UTF-8 bytes (0 = null), the content equal to the description
+ * is stored as a reference (1). The file is written atomically (temp + fsync + rename) and read
+ * through a memory-mapped FileChannel, the News are built with {@link News#trusted} (the id stored).
+ *
+ * @author Diego Duarte Diaz.
+ */
+public final class NewsSnapshot {
+
+    /**
+     * The magic number: "NWSS".
+     */
+    static final int MAGIC = 0x4E575353;
+
+    /**
+     * The version of the format.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The content equal to the description.
+     */
+    private static final int SAME_AS_DESCRIPTION = 1;
+
+    /**
+     * When the news were saved (millis).
+     */
+    private final long timestamp;
+
+    /**
+     * The news (unmodifiable).
+     */
+    private final List<News> news;
+
+    /**
+     * The Constructor.
+     *
+     * @param timestamp when the news were saved (millis).
+     * @param news to save.
+     */
+    public NewsSnapshot(final long timestamp, final List<News> news) {
+        Validation.notNull(news, "news");
+        this.timestamp = timestamp;
+        this.news = Collections.unmodifiableList(news);
+    }
+
+    /**
+     * @return when the news were saved (millis).
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return the news (unmodifiable).
+     */
+    public List<News> getNews() {
+        return news;
+    }
+
+    /**
+     * Write the snapshot atomically: the file has the old or the new snapshot, never a part.
+     * Each write uses its own temporal file, so concurrent writes of the same file don't mix.
+     *
+     * @param file to write.
+     * @param snapshot to write.
+     * @throws IOException in case of error.
+     */
+    public static void write(final File file, final NewsSnapshot snapshot) throws IOException {
+        Validation.notNull(file, "file");
+        Validation.notNull(snapshot, "snapshot");
+
+        final Output output = encode(snapshot);
+        final File temp = File.createTempFile(file.getName() + ".", ".tmp", file.getAbsoluteFile().getParentFile());
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            out.write(output.bytes, 0, output.size);
+            out.getFD().sync();
+        } catch (IOException ex) {
+            temp.delete();
+            throw ex;
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("Can't rename the snapshot " + temp);
+        }
+    }
+
+    /**
+     * Read the snapshot (memory-mapped).
+     *
+     * @param file to read.
+     * @return the snapshot or null if the file doesn't exist.
+     * @throws IOException in case of error, corrupt file or unknown version.
+     */
+    public static NewsSnapshot read(final File file) throws IOException {
+        Validation.notNull(file, "file");
+        if (!file.isFile()) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Encode the snapshot.
+     */
+    static Output encode(final NewsSnapshot snapshot) {
+        final List<News> news = snapshot.news;
+        final Output out = new Output(64 + news.size() * 256);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(snapshot.timestamp);
+        out.writeVarLong(news.size());
+
+        // The zones (few)
+        final List<ZoneId> zones = new ArrayList<>();
+        final int[] zoneIndexes = new int[news.size()];
+        for (int i = 0; i < news.size(); i++) {
+            final ZoneId zone = news.get(i).getPublishedAt().getZone();
+            int index = zones.indexOf(zone);
+            if (index < 0) {
+                index = zones.size();
+                zones.add(zone);
+            }
+            zoneIndexes[i] = index;
+        }
+        out.writeVarLong(zones.size());
+        for (ZoneId zone : zones) {
+            out.writeString(zone.getId());
+        }
+
+        long previous = 0;
+        for (int i = 0; i < news.size(); i++) {
+            final News n = news.get(i);
+            out.writeLong(n.getLongId());
+            final long publishedAt = n.getPublishedAtMillis();
+            out.writeVarLong(zigzag(publishedAt - previous));
+            previous = publishedAt;
+            out.writeVarLong(zoneIndexes[i]);
+            out.writeString(n.getTitle());
+            out.writeString(n.getSource());
+            out.writeString(n.getAuthor());
+            out.writeString(n.getUrl());
+            out.writeString(n.getUrlImage());
+            out.writeString(n.getDescription());
+            if (n.getContent() != null && n.getContent().equals(n.getDescription())) {
+                out.writeVarLong(SAME_AS_DESCRIPTION);
+            } else {
+                out.writeContent(n.getContent());
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Decode the snapshot.
+     */
+    static NewsSnapshot decode(final ByteBuffer buffer) throws IOException {
+        try {
+            final int magic = buffer.getInt();
+            if (magic != MAGIC) {
+                throw new IOException("Not a snapshot: " + Integer.toHexString(magic));
+            }
+            final int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unknown version: " + version);
+            }
+            final long timestamp = buffer.getLong();
+            final int size = checkSize(readVarLong(buffer), buffer);
+
+            final Input in = new Input(buffer);
+            final ZoneId[] zones = new ZoneId[checkSize(readVarLong(buffer), buffer)];
+            for (int i = 0; i < zones.length; i++) {
+                zones[i] = Dates.zoneOf(in.readString());
+            }
+
+            final List<News> news = new ArrayList<>(size);
+            long publishedAt = 0;
+            for (int i = 0; i < size; i++) {
+                final long id = buffer.getLong();
+                publishedAt += unzigzag(readVarLong(buffer));
+                final int zone = (int) readVarLong(buffer);
+                if (zone < 0 || zone >= zones.length) {
+                    throw new IOException("Wrong zone: " + zone);
+                }
+                final String title = in.readString();
+                final String source = in.readString();
+                final String author = in.readString();
+                final String url = in.readString();
+                final String urlImage = in.readString();
+                final String description = in.readString();
+                final String content = in.readContent(description);
+
+                // Written by us: already validated, the id isn't calculated again
+                news.add(News.trusted(id, title, source, author, url, urlImage, description, content,
+                        ZonedDateTime.ofInstant(Instant.ofEpochMilli(publishedAt), zones[zone])));
+            }
+            return new NewsSnapshot(timestamp, news);
+        } catch (BufferUnderflowException | IllegalArgumentException ex) {
+            throw new IOException("Corrupt snapshot", ex);
+        }
+    }
+
+    /**
+     * @return the size if it's possible (at least one byte by element).
+     */
+    private static int checkSize(final long size, final ByteBuffer buffer) throws IOException {
+        if (size < 0 || size > buffer.remaining()) {
+            throw new IOException("Wrong size: " + size);
+        }
+        return (int) size;
+    }
+
+    /**
+     * @return the signed value as unsigned (small negatives are small).
+     */
+    static long zigzag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * @return the signed value.
+     */
+    static long unzigzag(final long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Read a varint (7 bits by byte, little endian).
+     */
+    static long readVarLong(final ByteBuffer buffer) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    /**
+     * The bytes written (growing buffer).
+     */
+    static final class Output {
+
+        private byte[] bytes;
+
+        private int size;
+
+        Output(final int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        /**
+         * @return a copy of the bytes written.
+         */
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+
+        private void ensure(final int more) {
+            if (size + more > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + more));
+            }
+        }
+
+        void writeInt(final int value) {
+            ensure(4);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                bytes[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeLong(final long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                bytes[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        /**
+         * The (nullable) String as varint (length + 1) + UTF-8.
+         */
+        void writeString(final String value) {
+            writeBytes(value, 1);
+        }
+
+        /**
+         * The content: 0 = null, 1 = the description, (length + 2) + UTF-8.
+         */
+        void writeContent(final String value) {
+            writeBytes(value, 2);
+        }
+
+        private void writeBytes(final String value, final int offset) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            final byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(utf8.length + offset);
+            ensure(utf8.length);
+            System.arraycopy(utf8, 0, bytes, size, utf8.length);
+            size += utf8.length;
+        }
+    }
+
+    /**
+     * The strings read (reusing the buffer of the bytes).
+     */
+    private static final class Input {
+
+        private final ByteBuffer buffer;
+
+        private byte[] scratch = new byte[256];
+
+        Input(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        String readString() throws IOException {
+            final long length = readVarLong(buffer);
+            return length == 0 ? null : readBytes(length - 1);
+        }
+
+        String readContent(final String description) throws IOException {
+            final long length = readVarLong(buffer);
+            if (length == 0) {
+                return null;
+            }
+            if (length == SAME_AS_DESCRIPTION) {
+                return description;
+            }
+            return readBytes(length - 2);
+        }
+
+        private String readBytes(final long length) throws IOException {
+            final int n = checkSize(length, buffer);
+            if (n > scratch.length) {
+                scratch = new byte[Math.max(n, scratch.length * 2)];
+            }
+            buffer.get(scratch, 0, n);
+            return new String(scratch, 0, n, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+import cl.ucn.disc.dsm.dduarte.news.utils.LongHashSet;
+import cl.ucn.disc.dsm.dduarte.news.utils.Validation;
+
+/**
+ * Copy the news from a remote {@link Contracts} (the NewsApi) into a local one (the store).
+ * <p>
+ * Each sync retrieves the news, rejects the ones already synced (the ids of the last
+ * {@link #SYNCED_SYNCS} syncs: the local rejects the older ones) and saves the new ones in one
+ * batch ({@link Contracts#saveNews(List)}). {@link #sync()} runs once in the calling thread (the
+ * WorkManager in the device); {@link #start()} runs it periodically in its own thread, waiting
+ * {@code initialBackoff * 2^(failures - 1)} (up to {@code maxBackoff}) after an error.
+ *
+ * @author Diego Duarte Diaz.
+ */
+public final class NewsSync {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(NewsSync.class);
+
+    /**
+     * Default time between syncs: 15 minutes.
+     */
+    public static final long DEFAULT_INTERVAL = TimeUnit.MINUTES.toMillis(15);
+
+    /**
+     * Default wait after the first error: 30 seconds.
+     */
+    public static final long DEFAULT_INITIAL_BACKOFF = TimeUnit.SECONDS.toMillis(30);
+
+    /**
+     * Default max wait after errors: 1 hour.
+     */
+    public static final long DEFAULT_MAX_BACKOFF = TimeUnit.HOURS.toMillis(1);
+
+    /**
+     * The number of syncs (of {@code size} news) to remember the ids.
+     */
+    public static final int SYNCED_SYNCS = 10;
+
+    /**
+     * The remote news.
+     */
+    private final Contracts remote;
+
+    /**
+     * The local news.
+     */
+    private final Contracts local;
+
+    /**
+     * The number of news to retrieve by sync.
+     */
+    private final int size;
+
+    /**
+     * The time between syncs (millis).
+     */
+    private final long interval;
+
+    /**
+     * The wait after the first error (millis).
+     */
+    private final long initialBackoff;
+
+    /**
+     * The max wait after errors (millis).
+     */
+    private final long maxBackoff;
+
+    /**
+     * The ids already synced (the last ones, guarded by itself).
+     */
+    private final LongHashSet synced;
+
+    /**
+     * The ids of synced in order of arrival: the oldest is replaced (guarded by synced).
+     */
+    private final long[] syncedOrder;
+
+    /**
+     * The number of ids added to synced (guarded by synced).
+     */
+    private long syncedCount;
+
+    /**
+     * The sync requested and not finished (pull to refresh, guarded by this).
+     */
+    private CompletableFuture<Integer> requested;
+
+    /**
+     * The errors since the last sync ok.
+     */
+    private int failures;
+
+    /**
+     * The thread of the periodic sync.
+     */
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "news-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The next periodic sync.
+     */
+    private ScheduledFuture<?> next;
+
+    /**
+     * The Constructor with the default values.
+     *
+     * @param remote the source of the news.
+     * @param local where to save the news.
+     * @param size the number of news to retrieve by sync.
+     */
+    public NewsSync(final Contracts remote, final Contracts local, final int size) {
+        this(remote, local, size, DEFAULT_INTERVAL, DEFAULT_INITIAL_BACKOFF, DEFAULT_MAX_BACKOFF);
+    }
+
+    /**
+     * The Constructor.
+     *
+     * @param remote the source of the news.
+     * @param local where to save the news.
+     * @param size the number of news to retrieve by sync.
+     * @param interval the time between syncs (millis).
+     * @param initialBackoff the wait after the first error (millis).
+     * @param maxBackoff the max wait after errors (millis).
+     */
+    public NewsSync(final Contracts remote, final Contracts local, final int size, final long interval,
+                    final long initialBackoff, final long maxBackoff) {
+        Validation.notNull(remote, "remote");
+        Validation.notNull(local, "local");
+        if (size <= 0 || interval <= 0 || initialBackoff <= 0 || maxBackoff < initialBackoff) {
+            throw new IllegalArgumentException("Error: size, interval and initialBackoff need to be >0 and maxBackoff >= initialBackoff");
+        }
+        this.remote = remote;
+        this.local = local;
+        this.size = size;
+        this.interval = interval;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.syncedOrder = new long[size * SYNCED_SYNCS];
+        this.synced = new LongHashSet(syncedOrder.length);
+    }
+
+    /**
+     * Sync once, in the calling thread.
+     *
+     * @return the number of news saved.
+     * @throws RuntimeException from the remote or the local.
+     */
+    public int sync() {
+        // One sync at time (without blocking the start/stop)
+        synchronized (synced) {
+            final List<News> news = remote.retrieveNews(size);
+
+            // Only the new ones (the local reject the duplicated too, but don't write if nothing new)
+            final List<News> batch = new ArrayList<>(news.size());
+            final LongHashSet batchIds = new LongHashSet(news.size());
+            for (News n : news) {
+                if (n != null && !synced.contains(n.getLongId()) && batchIds.add(n.getLongId())) {
+                    batch.add(n);
+                }
+            }
+            if (!batch.isEmpty()) {
+                local.saveNews(batch);
+                for (News n : batch) {
+                    remember(n.getLongId());
+                }
+            }
+            log.debug("Synced {} news of {}.", batch.size(), news.size());
+            return batch.size();
+        }
+    }
+
+    /**
+     * Add the id to synced, forgetting the oldest if full (guarded by synced).
+     */
+    private void remember(final long id) {
+        final int position = (int) (syncedCount % syncedOrder.length);
+        if (syncedCount >= syncedOrder.length) {
+            synced.remove(syncedOrder[position]);
+        }
+        syncedOrder[position] = id;
+        synced.add(id);
+        syncedCount++;
+    }
+
+    /**
+     * @return the number of ids remembered as synced.
+     */
+    int getSynced() {
+        synchronized (synced) {
+            return synced.size();
+        }
+    }
+
+    /**
+     * Start the periodic sync (the first one now).
+     */
+    public synchronized void start() {
+        if (next == null) {
+            schedule(0);
+        }
+    }
+
+    /**
+     * Sync now in the thread of the sync (pull to refresh). If a requested sync isn't finished,
+     * the same one is returned.
+     *
+     * @return the number of news saved.
+     */
+    public synchronized CompletableFuture<Integer> request() {
+        if (requested != null && !requested.isDone()) {
+            return requested;
+        }
+        final CompletableFuture<Integer> result = new CompletableFuture<>();
+        requested = result;
+        scheduler.execute(() -> {
+            try {
+                result.complete(sync());
+            } catch (RuntimeException ex) {
+                result.completeExceptionally(ex);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Stop the periodic sync.
+     */
+    public synchronized void stop() {
+        if (next != null) {
+            next.cancel(false);
+            next = null;
+        }
+    }
+
+    /**
+     * @return the number of errors since the last sync ok.
+     */
+    public synchronized int getFailures() {
+        return failures;
+    }
+
+    /**
+     * The wait after n errors: initialBackoff * 2^(n - 1), up to maxBackoff.
+     *
+     * @param failures the number of errors (>0).
+     * @return the wait (millis).
+     */
+    long backoff(final int failures) {
+        final int shift = Math.min(failures - 1, 62);
+        final long wait = initialBackoff << shift;
+        return wait <= 0 || wait >> shift != initialBackoff ? maxBackoff : Math.min(wait, maxBackoff);
+    }
+
+    /**
+     * Schedule the next periodic sync.
+     */
+    private void schedule(final long delay) {
+        next = scheduler.schedule(this::run, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The periodic sync: sync and schedule the next one.
+     */
+    private void run() {
+        long delay;
+        try {
+            sync();
+            synchronized (this) {
+                failures = 0;
+            }
+            delay = interval;
+        } catch (RuntimeException ex) {
+            synchronized (this) {
+                delay = backoff(++failures);
+            }
+            log.warn("Can't sync the news, retrying in {} ms", delay, ex);
+        }
+        synchronized (this) {
+            // Stopped in the meantime
+            if (next != null) {
+                schedule(delay);
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+import cl.ucn.disc.dsm.dduarte.news.utils.LongHashSet;
+
+/**
+ * The newest k News of a set of candidates, without sorting all of them.
+ * <p>
+ * A bounded min-heap on the publishedAt (epoch millis): the root is the oldest of the k newest,
+ * each candidate is compared against it and, if newer, replaces it. O(n log k) time and the
+ * only memory used is the heap (k entries, primitive keys). The ties are resolved by id (the
+ * same order of {@link ContractsImplFile}).
+ *
+ * @author Diego Duarte Diaz.
+ */
+public final class NewsTopK {
+
+    /**
+     * The max number of news.
+     */
+    private final int k;
+
+    /**
+     * The publishedAt of the heap.
+     */
+    private final long[] keys;
+
+    /**
+     * The ids of the heap (the ties).
+     */
+    private final long[] ids;
+
+    /**
+     * The news of the heap.
+     */
+    private final News[] items;
+
+    /**
+     * The number of news in the heap.
+     */
+    private int size;
+
+    /**
+     * The Constructor.
+     *
+     * @param k the max number of news.
+     */
+    public NewsTopK(final int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Error: k need to be >=0");
+        }
+        this.k = k;
+        this.keys = new long[k];
+        this.ids = new long[k];
+        this.items = new News[k];
+    }
+
+    /**
+     * The newest k news of the list.
+     *
+     * @param news the candidates (any order).
+     * @param k the max number of news.
+     * @return the newest news (newest first).
+     */
+    public static List<News> select(final List<News> news, final int k) {
+        final NewsTopK topK = new NewsTopK(Math.min(k, news.size()));
+        for (int i = 0; i < news.size(); i++) {
+            topK.offer(news.get(i));
+        }
+        return topK.toList();
+    }
+
+    /**
+     * The newest k news of the list, without duplicated (by id, the first one is kept).
+     *
+     * @param news the candidates (any order).
+     * @param k the max number of news.
+     * @return the newest news (newest first).
+     */
+    public static List<News> selectDistinct(final List<News> news, final int k) {
+        final NewsTopK topK = new NewsTopK(Math.min(k, news.size()));
+        final LongHashSet seen = new LongHashSet(news.size());
+        for (int i = 0; i < news.size(); i++) {
+            final News n = news.get(i);
+            if (seen.add(n.getLongId())) {
+                topK.offer(n);
+            }
+        }
+        return topK.toList();
+    }
+
+    /**
+     * Offer one candidate.
+     *
+     * @param news the candidate.
+     * @return true if the news is (for now) in the k newest.
+     */
+    public boolean offer(final News news) {
+        final long key = news.getPublishedAtMillis();
+        final long id = news.getLongId();
+        if (size < k) {
+            siftUp(size++, key, id, news);
+            return true;
+        }
+        // Full: only the news newer than the oldest
+        if (k == 0 || !newer(key, id, keys[0], ids[0])) {
+            return false;
+        }
+        siftDown(0, key, id, news);
+        return true;
+    }
+
+    /**
+     * @return the number of news.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Remove all the news.
+     */
+    public void clear() {
+        Arrays.fill(items, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * @return the news (newest first), the heap isn't changed.
+     */
+    public List<News> toList() {
+        // Heap sort over a copy: the oldest goes to the end
+        final NewsTopK copy = new NewsTopK(size);
+        System.arraycopy(keys, 0, copy.keys, 0, size);
+        System.arraycopy(ids, 0, copy.ids, 0, size);
+        System.arraycopy(items, 0, copy.items, 0, size);
+        copy.size = size;
+
+        final News[] sorted = new News[size];
+        for (int i = size - 1; i >= 0; i--) {
+            sorted[i] = copy.items[0];
+            final int last = --copy.size;
+            if (last > 0) {
+                copy.siftDown(0, copy.keys[last], copy.ids[last], copy.items[last]);
+            }
+            copy.items[last] = null;
+        }
+        return new ArrayList<>(Arrays.asList(sorted));
+    }
+
+    /**
+     * @return true if (key1, id1) goes before (key2, id2): newer or same time and smaller id.
+     */
+    private static boolean newer(final long key1, final long id1, final long key2, final long id2) {
+        return key1 > key2 || (key1 == key2 && id1 < id2);
+    }
+
+    /**
+     * Move up the new entry from the position (the oldest to the root).
+     */
+    private void siftUp(int position, final long key, final long id, final News news) {
+        while (position > 0) {
+            final int parent = (position - 1) >>> 1;
+            if (!newer(keys[parent], ids[parent], key, id)) {
+                break;
+            }
+            set(position, keys[parent], ids[parent], items[parent]);
+            position = parent;
+        }
+        set(position, key, id, news);
+    }
+
+    /**
+     * Move down the new entry from the position.
+     */
+    private void siftDown(int position, final long key, final long id, final News news) {
+        final int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            final int right = child + 1;
+            if (right < size && newer(keys[child], ids[child], keys[right], ids[right])) {
+                child = right;
+            }
+            if (!newer(key, id, keys[child], ids[child])) {
+                break;
+            }
+            set(position, keys[child], ids[child], items[child]);
+            position = child;
+        }
+        set(position, key, id, news);
+    }
+
+    /**
+     * Set the entry in the position.
+     */
+    private void set(final int position, final long key, final long id, final News news) {
+        keys[position] = key;
+        ids[position] = id;
+        items[position] = news;
+    }
+}
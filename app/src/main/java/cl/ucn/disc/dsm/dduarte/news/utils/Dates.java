@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.utils;
+
+import org.threeten.bp.Instant;
+import org.threeten.bp.ZoneId;
+import org.threeten.bp.ZoneOffset;
+import org.threeten.bp.ZonedDateTime;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The Dates: fast parse of the NewsApi timestamps and the zone to show them.
+ *
+ * @author Diego Duarte Diaz.
+ */
+public final class Dates {
+
+    /**
+     * The default zone to show the dates (Chile).
+     */
+    public static final ZoneId DEFAULT_ZONE = ZoneOffset.ofHours(-3);
+
+    /**
+     * The days from 0000-01-01 to 1970-01-01.
+     */
+    private static final long DAYS_0000_TO_1970 = 719_528L;
+
+    /**
+     * The zones by id (the codec read the same few ids again and again).
+     */
+    private static final Map<String, ZoneId> ZONES = new ConcurrentHashMap<>();
+
+    /**
+     * The zone to show the dates.
+     */
+    private static volatile ZoneId zone = DEFAULT_ZONE;
+
+    /**
+     * Utility class.
+     */
+    private Dates() {
+        // Nothing here
+    }
+
+    /**
+     * @return the zone to show the dates.
+     */
+    public static ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * Change the zone to show the dates (the news already converted aren't changed).
+     *
+     * @param zone to use.
+     */
+    public static void setZone(final ZoneId zone) {
+        Validation.notNull(zone, "zone");
+        Dates.zone = zone;
+    }
+
+    /**
+     * @param id of the zone.
+     * @return the zone (cached).
+     */
+    public static ZoneId zoneOf(final String id) {
+        Validation.notNull(id, "id");
+        ZoneId zoneId = ZONES.get(id);
+        if (zoneId == null) {
+            zoneId = ZoneId.of(id);
+            ZONES.put(id, zoneId);
+        }
+        return zoneId;
+    }
+
+    /**
+     * @param millis since epoch.
+     * @return the date in the zone to show.
+     */
+    public static ZonedDateTime toZoned(final long millis) {
+        return ZonedDateTime.ofInstant(Instant.ofEpochMilli(millis), zone);
+    }
+
+    /**
+     * Parse the ISO-8601 timestamp of NewsApi ({@code yyyy-MM-ddTHH:mm:ss[.SSS](Z|+HH:mm)})
+     * without the formatter. Other formats go to {@link ZonedDateTime#parse(CharSequence)}.
+     *
+     * @param text to parse.
+     * @return the millis since epoch.
+     * @throws org.threeten.bp.format.DateTimeParseException if the text can't be parsed.
+     */
+    public static long parseIsoMillis(final CharSequence text) {
+        Validation.notNull(text, "text");
+
+        final int length = text.length();
+        if (length < 20 || text.charAt(4) != '-' || text.charAt(7) != '-' || (text.charAt(10) != 'T' && text.charAt(10) != 't')
+                || text.charAt(13) != ':' || text.charAt(16) != ':') {
+            return parseSlow(text);
+        }
+
+        final int year = digits(text, 0, 4);
+        final int month = digits(text, 5, 2);
+        final int day = digits(text, 8, 2);
+        final int hour = digits(text, 11, 2);
+        final int minute = digits(text, 14, 2);
+        final int second = digits(text, 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return parseSlow(text);
+        }
+
+        // The fraction: only the millis count
+        int pos = 19;
+        int millis = 0;
+        if (text.charAt(pos) == '.') {
+            final int start = ++pos;
+            int scale = 100;
+            while (pos < length && isDigit(text.charAt(pos))) {
+                millis += (text.charAt(pos) - '0') * scale;
+                scale /= 10;
+                pos++;
+            }
+            if (pos == start || pos == length) {
+                return parseSlow(text);
+            }
+        }
+
+        // The offset
+        final int offset;
+        final char c = text.charAt(pos);
+        if ((c == 'Z' || c == 'z') && pos == length - 1) {
+            offset = 0;
+        } else if ((c == '+' || c == '-') && pos == length - 6 && text.charAt(pos + 3) == ':') {
+            final int hours = digits(text, pos + 1, 2);
+            final int minutes = digits(text, pos + 4, 2);
+            if (hours < 0 || hours > 18 || minutes < 0 || minutes > 59) {
+                return parseSlow(text);
+            }
+            offset = (c == '-' ? -1 : 1) * (hours * 3600 + minutes * 60);
+        } else {
+            return parseSlow(text);
+        }
+
+        final long seconds = epochDay(year, month, day) * 86_400 + hour * 3600 + minute * 60 + second - offset;
+        return seconds * 1000 + millis;
+    }
+
+    /**
+     * The general parse (zone ids, without seconds, ..).
+     */
+    private static long parseSlow(final CharSequence text) {
+        final ZonedDateTime date = ZonedDateTime.parse(text);
+        return date.toEpochSecond() * 1000 + date.getNano() / 1_000_000;
+    }
+
+    /**
+     * @return the number or -1 if there is a char that isn't a digit.
+     */
+    private static int digits(final CharSequence text, final int from, final int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            final char c = text.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * @return true if the char is 0-9.
+     */
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * @return true if the year is leap.
+     */
+    private static boolean isLeap(final int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    /**
+     * @return the number of days of the month.
+     */
+    private static int lengthOfMonth(final int year, final int month) {
+        switch (month) {
+            case 2:
+                return isLeap(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * @return the days since 1970-01-01 (the same of LocalDate.toEpochDay, year >= 0).
+     */
+    private static long epochDay(final int year, final int month, final int day) {
+        long total = 365L * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeap(year)) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+}
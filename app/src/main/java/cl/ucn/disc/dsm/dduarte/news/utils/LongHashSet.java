@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.utils;
+
+/**
+ * Set of primitive longs (open addressing, linear probing): no boxing, no node by element.
+ * <p>
+ * Not thread safe.
+ *
+ * @author Diego Duarte Diaz.
+ */
+public final class LongHashSet {
+
+    /**
+     * The max load factor before resize.
+     */
+    private static final float LOAD_FACTOR = 0.6f;
+
+    /**
+     * The keys (0 = empty slot).
+     */
+    private long[] keys;
+
+    /**
+     * True if the set contains the 0 (that can't be stored in the table).
+     */
+    private boolean hasZero;
+
+    /**
+     * The number of keys in the table (without the zero).
+     */
+    private int size;
+
+    /**
+     * The max number of keys before resize.
+     */
+    private int threshold;
+
+    /**
+     * The Constructor.
+     */
+    public LongHashSet() {
+        this(16);
+    }
+
+    /**
+     * The Constructor.
+     *
+     * @param expected number of elements.
+     */
+    public LongHashSet(final int expected) {
+        if (expected < 0) {
+            throw new IllegalArgumentException("Error: expected need to be >=0");
+        }
+        allocate(capacityFor(expected));
+    }
+
+    /**
+     * Add a value.
+     *
+     * @param value to add.
+     * @return true if the value wasn't in the set.
+     */
+    public boolean add(final long value) {
+        if (value == 0) {
+            if (hasZero) {
+                return false;
+            }
+            hasZero = true;
+            return true;
+        }
+        final int mask = keys.length - 1;
+        int index = mix(value) & mask;
+        while (keys[index] != 0) {
+            if (keys[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = value;
+        if (++size > threshold) {
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+
+    /**
+     * @param value to find.
+     * @return true if the value is in the set.
+     */
+    public boolean contains(final long value) {
+        if (value == 0) {
+            return hasZero;
+        }
+        final int mask = keys.length - 1;
+        int index = mix(value) & mask;
+        while (keys[index] != 0) {
+            if (keys[index] == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Remove a value (the next keys of the probe are shifted back: no tombstones).
+     *
+     * @param value to remove.
+     * @return true if the value was in the set.
+     */
+    public boolean remove(final long value) {
+        if (value == 0) {
+            final boolean removed = hasZero;
+            hasZero = false;
+            return removed;
+        }
+        final int mask = keys.length - 1;
+        int hole = mix(value) & mask;
+        while (keys[hole] != value) {
+            if (keys[hole] == 0) {
+                return false;
+            }
+            hole = (hole + 1) & mask;
+        }
+
+        // Fill the hole with the next key that can't be found past it
+        int next = (hole + 1) & mask;
+        while (keys[next] != 0) {
+            final int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = 0;
+        size--;
+        return true;
+    }
+
+    /**
+     * @return the number of values.
+     */
+    public int size() {
+        return hasZero ? size + 1 : size;
+    }
+
+    /**
+     * @return true if there aren't values.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Remove all the values (keeping the capacity).
+     */
+    public void clear() {
+        java.util.Arrays.fill(keys, 0L);
+        hasZero = false;
+        size = 0;
+    }
+
+    /**
+     * Move the keys to a new table.
+     */
+    private void rehash(final int capacity) {
+        final long[] old = keys;
+        allocate(capacity);
+        final int mask = keys.length - 1;
+        for (long key : old) {
+            if (key != 0) {
+                int index = mix(key) & mask;
+                while (keys[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+            }
+        }
+    }
+
+    /**
+     * Build the table.
+     */
+    private void allocate(final int capacity) {
+        keys = new long[capacity];
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * @return the power of two capacity to hold the expected elements.
+     */
+    private static int capacityFor(final int expected) {
+        final long needed = Math.max(16L, (long) Math.ceil(expected / (double) LOAD_FACTOR) + 1);
+        if (needed > (1 << 30)) {
+            throw new IllegalArgumentException("Too many elements: " + expected);
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+    /**
+     * Spread the bits (the low ones are used as index).
+     */
+    private static int mix(final long value) {
+        final long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.metrics;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import cl.ucn.disc.dsm.dduarte.news.services.ArticleConverter;
+
+/**
+ * Testing of the Metrics.
+ *
+ * @author Diego Duarte Diaz
+ */
+public final class TestMetrics {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(TestMetrics.class);
+
+    @AfterEach
+    public void reset() {
+        Metrics.setRegistry(Metrics.NOOP);
+    }
+
+    /**
+     * Testing the default: nothing is measured.
+     */
+    @Test
+    public void testNoop() {
+        log.debug("Testing ..");
+
+        Assertions.assertSame(Metrics.NOOP, Metrics.getRegistry(), "Wrong default");
+        Assertions.assertEquals(0, Metrics.start(), "The clock was read");
+        Metrics.record(Metrics.FETCH, Metrics.start());
+        Metrics.increment(Metrics.CACHE_HIT);
+        Assertions.assertEquals("{}", Metrics.toJson(), "Wrong snapshot");
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the histogram and the counters.
+     */
+    @Test
+    public void testRegistry() {
+        log.debug("Testing ..");
+
+        MetricsRegistryImpl registry = new MetricsRegistryImpl();
+        for (int i = 1; i <= 1000; i++) {
+            registry.record("latency", i);
+        }
+        registry.increment("counter", 2);
+        registry.increment("counter", 3);
+
+        MetricsRegistryImpl.Histogram histogram = registry.getHistogram("latency");
+        Assertions.assertEquals(1000, histogram.getCount(), "Wrong count");
+        Assertions.assertEquals(1, histogram.getMin(), "Wrong min");
+        Assertions.assertEquals(1000, histogram.getMax(), "Wrong max");
+        Assertions.assertEquals(500, histogram.getMean(), "Wrong mean");
+        // Power of two buckets: max 2x of error
+        Assertions.assertTrue(histogram.getPercentile(50) >= 500 && histogram.getPercentile(50) < 1000, "Wrong p50");
+        Assertions.assertEquals(1000, histogram.getPercentile(99), "Wrong p99");
+        Assertions.assertEquals(5, registry.getCounter("counter"), "Wrong counter");
+        Assertions.assertEquals(0, registry.getCounter("unknown"), "Wrong counter");
+
+        JsonObject json = JsonParser.parseString(registry.toJson()).getAsJsonObject();
+        Assertions.assertEquals(5, json.getAsJsonObject("counters").get("counter").getAsLong(), "Wrong json");
+        JsonObject latency = json.getAsJsonObject("histograms").getAsJsonObject("latency");
+        Assertions.assertEquals(1000, latency.get("count").getAsLong(), "Wrong json");
+        Assertions.assertEquals(histogram.getPercentile(90), latency.get("p90").getAsLong(), "Wrong json");
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the metrics of the conversion.
+     */
+    @Test
+    public void testInstrumentation() {
+        log.debug("Testing ..");
+
+        MetricsRegistryImpl registry = new MetricsRegistryImpl();
+        Metrics.setRegistry(registry);
+
+        ArticleConverter converter = new ArticleConverter();
+        Assertions.assertNotNull(converter.convert("The Title", "The Source", null, null, null, "The Description", "2020-11-21T12:00:00Z"), "Dropped?");
+        Assertions.assertNull(converter.convert("The Title", "The Source", "The Author", null, null, "The Description", "yesterday"), "Converted?");
+
+        Assertions.assertEquals(1, registry.getCounter(Metrics.ARTICLE_REPAIRED), "Wrong repaired");
+        Assertions.assertEquals(1, registry.getCounter(Metrics.ARTICLE_DROPPED), "Wrong dropped");
+        Assertions.assertEquals(1, registry.getHistogram(Metrics.CONVERT).getCount(), "Wrong conversions");
+
+        log.debug("Done.");
+    }
+}
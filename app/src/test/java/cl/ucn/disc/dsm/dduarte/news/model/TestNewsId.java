@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.model;
+
+import net.openhft.hashing.LongHashFunction;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.threeten.bp.ZonedDateTime;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * Testing of NewsId
+ * @author Diego Duarte Diaz
+ */
+public final class TestNewsId {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(TestNewsId.class);
+
+    /**
+     * @return the id as was calculated before (the concatenation).
+     */
+    private static long concat(final String title, final String source, final String author) {
+        return LongHashFunction.xx().hashChars(title + "|" + source + "|" + author);
+    }
+
+    /**
+     * @return a random string (ascii, latin and non latin chars).
+     */
+    private static String random(final Random random) {
+        final StringBuilder sb = new StringBuilder();
+        final int length = 2 + random.nextInt(80);
+        for (int i = 0; i < length; i++) {
+            switch (random.nextInt(3)) {
+                case 0:
+                    sb.append((char) (' ' + random.nextInt(95)));
+                    break;
+                case 1:
+                    sb.append((char) (0xC0 + random.nextInt(64)));
+                    break;
+                default:
+                    sb.append((char) (0x3040 + random.nextInt(96)));
+                    break;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Testing the same ids of the concatenation.
+     */
+    @Test
+    public void testBitIdentical() {
+        log.debug("Testing ..");
+
+        Assertions.assertEquals(concat("The Title", "The Source", "The Author"),
+                NewsId.of("The Title", "The Source", "The Author"), "Wrong id");
+        Assertions.assertEquals(concat("Díaz", "Ñuñoa", "Señor"), NewsId.of("Díaz", "Ñuñoa", "Señor"), "Wrong id");
+
+        final Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            final String title = random(random);
+            final String source = random(random);
+            final String author = random(random);
+            Assertions.assertEquals(concat(title, source, author), NewsId.of(title, source, author), "Wrong id: " + title);
+        }
+
+        // The News use it
+        News news = new News("The Title", "The Source", "The Author", null, null, null, "The Content",
+                ZonedDateTime.now());
+        Assertions.assertEquals(concat("The Title", "The Source", "The Author"), news.getLongId(), "Wrong id");
+        Assertions.assertEquals(news.getLongId(), news.getId().longValue(), "Wrong boxed id");
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the long keys: same ids and the buffer of the thread doesn't keep their size.
+     */
+    @Test
+    public void testLongKey() {
+        log.debug("Testing ..");
+
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            sb.append((char) ('a' + i % 26));
+        }
+        final String title = sb.toString();
+        Assertions.assertEquals(concat(title, "The Source", "The Author"), NewsId.of(title, "The Source", "The Author"), "Wrong id");
+        Assertions.assertTrue(NewsId.getBufferLength() <= NewsId.MAX_BUFFER, "Buffer too big: " + NewsId.getBufferLength());
+
+        // Up to the max: reused
+        final String max = title.substring(0, NewsId.MAX_BUFFER - 2);
+        Assertions.assertEquals(concat(max, "", ""), NewsId.of(max, "", ""), "Wrong id");
+        Assertions.assertEquals(NewsId.MAX_BUFFER, NewsId.getBufferLength(), "Wrong buffer");
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the zero allocation (after the warm up).
+     */
+    @Test
+    public void testAllocation() {
+        log.debug("Testing ..");
+
+        final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "No allocation counter");
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        final long thread = Thread.currentThread().getId();
+
+        long sum = 0;
+        for (int i = 0; i < 100_000; i++) {
+            sum += NewsId.of("The Title of the news", "The Source", "The Author");
+        }
+
+        final long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < 100_000; i++) {
+            sum += NewsId.of("The Title of the news", "The Source", "The Author");
+        }
+        final long allocated = threads.getThreadAllocatedBytes(thread) - before;
+        log.debug("Allocated: {} bytes ({}).", allocated, sum);
+
+        // Less than one byte by id (the counter itself allocates a little)
+        Assertions.assertTrue(allocated < 100_000, "Allocated: " + allocated);
+
+        log.debug("Done.");
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.threeten.bp.ZoneId;
+import org.threeten.bp.ZonedDateTime;
+
+/**
+ * Testing of the trusted construction of News.
+ * @author Diego Duarte Diaz
+ */
+public final class TestNewsTrusted {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(TestNewsTrusted.class);
+
+    /**
+     * Testing the same News than the public constructor.
+     */
+    @Test
+    public void testTrusted() {
+        log.debug("Testing ..");
+
+        final ZonedDateTime publishedAt = ZonedDateTime.now(ZoneId.of("-3"));
+        final News news = new News("The Title", "The Source", "The Author", "https://url", null, "The Description", "The Content", publishedAt);
+
+        final News computed = News.trusted("The Title", "The Source", "The Author", "https://url", null, "The Description", "The Content", publishedAt);
+        Assertions.assertEquals(news.getLongId(), computed.getLongId(), "Wrong id");
+
+        final News stored = News.trusted(news.getLongId(), "The Title", "The Source", "The Author", "https://url", null, "The Description", "The Content", publishedAt);
+        Assertions.assertEquals(news.getLongId(), stored.getLongId(), "Wrong id");
+        Assertions.assertEquals(news.getTitle(), stored.getTitle(), "Wrong title");
+        Assertions.assertEquals(news.getSource(), stored.getSource(), "Wrong source");
+        Assertions.assertEquals(news.getAuthor(), stored.getAuthor(), "Wrong author");
+        Assertions.assertEquals(news.getUrl(), stored.getUrl(), "Wrong url");
+        Assertions.assertNull(stored.getUrlImage(), "Wrong urlImage");
+        Assertions.assertEquals(news.getDescription(), stored.getDescription(), "Wrong description");
+        Assertions.assertEquals(news.getContent(), stored.getContent(), "Wrong content");
+        Assertions.assertEquals(news.getPublishedAt(), stored.getPublishedAt(), "Wrong publishedAt");
+
+        // The stored id is used as is
+        Assertions.assertEquals(42, News.trusted(42, "The Title", "The Source", "The Author", null, null, "", "", publishedAt).getLongId(), "Id calculated?");
+
+        // The public constructor is still strict
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new News("T", "The Source", "The Author", null, null, "", "", publishedAt), "Title validated");
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new News("The Title", "The Source", "The Author", null, null, "", "", null), "publishedAt validated");
+
+        log.debug("Done.");
+    }
+}
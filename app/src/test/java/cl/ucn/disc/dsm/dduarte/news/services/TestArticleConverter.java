@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import com.kwabenaberko.newsapilib.models.Article;
+import com.kwabenaberko.newsapilib.models.Source;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+
+/**
+ * Testing of the ArticleConverter.
+ *
+ * @author Diego Duarte Diaz
+ */
+public final class TestArticleConverter {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(TestArticleConverter.class);
+
+    /**
+     * @return the article.
+     */
+    private static Article article(final String title, final String author, final String description, final String publishedAt) {
+        Source source = new Source();
+        source.setName("The Source");
+
+        Article article = new Article();
+        article.setSource(source);
+        article.setTitle(title);
+        article.setAuthor(author);
+        article.setDescription(description);
+        article.setUrl("https://www.example.com/" + title);
+        article.setPublishedAt(publishedAt);
+        return article;
+    }
+
+    /**
+     * Testing the repair and the drop of the invalid articles.
+     */
+    @Test
+    public void testFailSoft() {
+        log.debug("Testing ..");
+
+        ArticleConverter converter = new ArticleConverter();
+
+        // Valid
+        News news = converter.convert(article("The Title", "The Author", "The Description", "2020-11-21T12:00:00Z"));
+        Assertions.assertNotNull(news, "Valid article dropped");
+        Assertions.assertEquals("The Author", news.getAuthor(), "Wrong author");
+
+        // Repaired
+        news = converter.convert(article("Other Title", null, "", "2020-11-21T12:00:00Z"));
+        Assertions.assertNotNull(news, "Article not repaired");
+        Assertions.assertEquals(ArticleConverter.NO_AUTHOR, news.getAuthor(), "Wrong author");
+        Assertions.assertEquals(ArticleConverter.NO_DESCRIPTION, news.getDescription(), "Wrong description");
+
+        // Dropped: without title, wrong date, without date, without source and null
+        Assertions.assertNull(converter.convert(article(null, "The Author", "The Description", "2020-11-21T12:00:00Z")), "Without title");
+        Assertions.assertNull(converter.convert(article("The Title", "The Author", "The Description", "yesterday")), "Wrong date");
+        Assertions.assertNull(converter.convert(article("The Title", "The Author", "The Description", null)), "Without date");
+        Article article = article("The Title", "The Author", "The Description", "2020-11-21T12:00:00Z");
+        article.setSource(null);
+        Assertions.assertNull(converter.convert(article), "Without source");
+        Assertions.assertNull(converter.convert(null), "Null");
+
+        Assertions.assertEquals(2, converter.getConverted(), "Wrong converted");
+        Assertions.assertEquals(1, converter.getRepaired(), "Wrong repaired");
+        Assertions.assertEquals(5, converter.getDropped(), "Wrong dropped");
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the parallel conversion: same order and same result than the sequential one.
+     */
+    @Test
+    public void testConvertAll() {
+        log.debug("Testing ..");
+
+        List<Article> articles = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            // One of ten invalid
+            articles.add(article("The Title " + i, "The Author", "The Description", i % 10 == 0 ? "wrong" : "2020-11-21T12:00:00Z"));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            ArticleConverter parallel = new ArticleConverter(executor, 4);
+            ArticleConverter sequential = new ArticleConverter(executor, 1);
+
+            List<News> expected = sequential.convertAll(articles);
+            List<News> news = parallel.convertAll(articles);
+
+            Assertions.assertEquals(900, expected.size(), "Wrong size!");
+            Assertions.assertEquals(expected.size(), news.size(), "Wrong size!");
+            for (int i = 0; i < news.size(); i++) {
+                Assertions.assertEquals(expected.get(i).getLongId(), news.get(i).getLongId(), "Wrong order");
+            }
+            Assertions.assertEquals(900, parallel.getConverted(), "Wrong converted");
+            Assertions.assertEquals(100, parallel.getDropped(), "Wrong dropped");
+
+            // Small pages (and the empty one)
+            Assertions.assertEquals(9, parallel.convertAll(articles.subList(0, 10)).size(), "Wrong size!");
+            Assertions.assertTrue(parallel.convertAll(new ArrayList<>()).isEmpty(), "Not empty?");
+        } finally {
+            executor.shutdown();
+        }
+
+        log.debug("Done.");
+    }
+}
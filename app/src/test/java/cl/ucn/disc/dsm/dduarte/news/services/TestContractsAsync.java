@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.threeten.bp.ZoneId;
+import org.threeten.bp.ZonedDateTime;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+
+/**
+ * Testing of ContractsAsync
+ * @author Diego Duarte Diaz
+ */
+public final class TestContractsAsync {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(TestContractsAsync.class);
+
+    /**
+     * The Contracts that wait for the latch.
+     */
+    private static final class SlowContracts implements Contracts {
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        @Override
+        public List<News> retrieveNews(Integer size) {
+            calls.incrementAndGet();
+            try {
+                latch.await();
+            } catch (InterruptedException ex) {
+                throw new RuntimeException(ex);
+            }
+            List<News> news = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                news.add(new News("The Title " + i, "The Source", "The Author", null, null,
+                        "The Description", "The Content", ZonedDateTime.now(ZoneId.of("-3"))));
+            }
+            return news;
+        }
+
+        @Override
+        public void saveNews(News news) {
+            // Nothing here
+        }
+    }
+
+    /**
+     * Testing the same request shared by two callers.
+     */
+    @Test
+    public void testDeduplication() throws Exception {
+        log.debug("Testing ..");
+
+        final SlowContracts slow = new SlowContracts();
+        final ContractsAsync contracts = new ContractsAsync(slow);
+
+        CompletableFuture<List<News>> first = contracts.retrieveNews(10);
+        CompletableFuture<List<News>> second = contracts.retrieveNews(10);
+
+        // The first one leaves (ex: rotation of the screen)
+        Assertions.assertTrue(first.cancel(true), "Can't cancel");
+
+        slow.latch.countDown();
+        List<News> news = second.get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(10, news.size(), "Wrong size!");
+        Assertions.assertEquals(1, slow.calls.get(), "Two requests");
+        Assertions.assertTrue(first.isCancelled(), "Not cancelled");
+
+        // Finished: a new request
+        Assertions.assertEquals(3, contracts.retrieveNews(3).get(5, TimeUnit.SECONDS).size(), "Wrong size!");
+        Assertions.assertEquals(2, slow.calls.get(), "Request not finished?");
+
+        contracts.shutdown();
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the cancel of the request.
+     */
+    @Test
+    public void testCancel() throws Exception {
+        log.debug("Testing ..");
+
+        final SlowContracts slow = new SlowContracts();
+        final ContractsAsync contracts = new ContractsAsync(slow);
+
+        CompletableFuture<List<News>> future = contracts.retrieveNews(10);
+        Assertions.assertTrue(contracts.cancel(10), "Nothing to cancel");
+        Assertions.assertFalse(contracts.cancel(10), "Cancelled twice");
+        Assertions.assertThrows(Exception.class, () -> future.get(5, TimeUnit.SECONDS), "Not cancelled");
+        Assertions.assertTrue(future.isCompletedExceptionally(), "Not cancelled");
+
+        contracts.shutdown();
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the bound of the executor.
+     */
+    @Test
+    public void testBounded() throws InterruptedException, TimeoutException {
+        log.debug("Testing ..");
+
+        final SlowContracts slow = new SlowContracts();
+        final ContractsAsync contracts = new ContractsAsync(slow, 1, 1);
+
+        // 1 running + 1 waiting, the third is rejected
+        contracts.retrieveNews(1);
+        contracts.retrieveNews(2);
+        CompletableFuture<List<News>> rejected = contracts.retrieveNews(3);
+        Assertions.assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS), "Not rejected");
+
+        slow.latch.countDown();
+        contracts.shutdown();
+        log.debug("Done.");
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.threeten.bp.ZoneId;
+import org.threeten.bp.ZonedDateTime;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+
+/**
+ * Testing of ContractsImplCache
+ * @author Diego Duarte Diaz
+ */
+public final class TestContractsImplCache {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(TestContractsImplCache.class);
+
+    /**
+     * The Contracts that count the calls.
+     */
+    private static final class CountingContracts implements Contracts {
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public List<News> retrieveNews(Integer size) {
+            final int call = calls.incrementAndGet();
+            List<News> news = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                news.add(new News("Title " + call + "-" + i, "The Source", "The Author", "https://url", null,
+                        "The Description", "The Content", ZonedDateTime.now(ZoneId.of("-3"))));
+            }
+            return news;
+        }
+
+        @Override
+        public void saveNews(News news) {
+            // Nothing here
+        }
+    }
+
+    /**
+     * Testing the fresh, stale and expired entries.
+     */
+    @Test
+    public void testRetrieveNews(@TempDir File directory) throws InterruptedException {
+        log.debug("Testing ..");
+
+        final AtomicLong clock = new AtomicLong(0);
+        final CountingContracts source = new CountingContracts();
+        final Contracts contracts = new ContractsImplCache(source, directory, 100, 1000, 4, clock::get);
+
+        // Miss
+        List<News> first = contracts.retrieveNews(10);
+        Assertions.assertEquals(10, first.size(), "Wrong size!");
+        Assertions.assertEquals(1, source.calls.get(), "The source wasn't called");
+
+        // Fresh: same news without calling the source
+        clock.set(50);
+        Assertions.assertSame(first, contracts.retrieveNews(10), "Not from memory");
+        Assertions.assertEquals(1, source.calls.get(), "The source was called with fresh data");
+
+        // Stale: same news, refresh in background
+        clock.set(500);
+        Assertions.assertSame(first, contracts.retrieveNews(10), "Stale data not returned");
+        for (int i = 0; i < 100 && source.calls.get() < 2; i++) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(2, source.calls.get(), "No revalidation");
+
+        // Expired: wait for the source
+        clock.set(10_000);
+        Assertions.assertNotSame(first, contracts.retrieveNews(10), "Expired data returned");
+        Assertions.assertEquals(3, source.calls.get(), "The source wasn't called");
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the disk tier (a new instance without memory).
+     */
+    @Test
+    public void testDisk(@TempDir File directory) {
+        log.debug("Testing ..");
+
+        final AtomicLong clock = new AtomicLong(0);
+        final CountingContracts source = new CountingContracts();
+
+        List<News> news = new ContractsImplCache(source, directory, 100, 1000, 4, clock::get).retrieveNews(5);
+
+        // The new instance (restart of the app)
+        List<News> cached = new ContractsImplCache(source, directory, 100, 1000, 4, clock::get).retrieveNews(5);
+        Assertions.assertEquals(1, source.calls.get(), "The source was called");
+        Assertions.assertEquals(news.size(), cached.size(), "Wrong size!");
+        for (int i = 0; i < news.size(); i++) {
+            Assertions.assertEquals(news.get(i).getId(), cached.get(i).getId(), "Wrong id");
+            Assertions.assertEquals(news.get(i).getPublishedAt().toInstant(), cached.get(i).getPublishedAt().toInstant(), "Wrong date");
+            Assertions.assertNull(cached.get(i).getUrlImage(), "Wrong urlImage");
+        }
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the invalidate (pull to refresh).
+     */
+    @Test
+    public void testInvalidate(@TempDir File directory) {
+        log.debug("Testing ..");
+
+        final AtomicLong clock = new AtomicLong(0);
+        final CountingContracts source = new CountingContracts();
+        final ContractsImplCache contracts = new ContractsImplCache(source, directory, 100, 1000, 4, clock::get);
+
+        List<News> first = contracts.retrieveNews(10);
+
+        // Fresh, but invalidated: go to the source
+        clock.set(10);
+        contracts.invalidate();
+        List<News> second = contracts.retrieveNews(10);
+        Assertions.assertNotSame(first, second, "Invalidated data returned");
+        Assertions.assertEquals(2, source.calls.get(), "The source wasn't called");
+
+        // The new one is fresh
+        Assertions.assertSame(second, contracts.retrieveNews(10), "Not from memory");
+        Assertions.assertEquals(2, source.calls.get(), "The source was called with fresh data");
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the save: the next retrieve (memory and disk) has the new news.
+     */
+    @Test
+    public void testSaveNews(@TempDir File directory) {
+        log.debug("Testing ..");
+
+        final ZonedDateTime now = ZonedDateTime.now(ZoneId.of("-3"));
+        final Contracts store = new ContractsImpl();
+        final Contracts contracts = new ContractsImplCache(store, directory, 1000, 1000, 4, () -> 0L);
+
+        contracts.saveNews(new News("Old title", "The Source", "The Author", "https://url", null,
+                "The Description", "The Content", now.minusHours(1)));
+        Assertions.assertEquals("Old title", contracts.retrieveNews(10).get(0).getTitle(), "Wrong news");
+
+        // One by one
+        contracts.saveNews(new News("New title", "The Source", "The Author", "https://url", null,
+                "The Description", "The Content", now));
+        List<News> news = contracts.retrieveNews(10);
+        Assertions.assertEquals(2, news.size(), "Old list returned");
+        Assertions.assertEquals("New title", news.get(0).getTitle(), "Wrong news");
+
+        // The batch
+        List<News> batch = new ArrayList<>();
+        batch.add(new News("Newest title", "The Source", "The Author", "https://url", null,
+                "The Description", "The Content", now.plusHours(1)));
+        contracts.saveNews(batch);
+        Assertions.assertEquals("Newest title", contracts.retrieveNews(10).get(0).getTitle(), "Old list returned");
+
+        // And the disk (a new instance)
+        Assertions.assertEquals(3, new ContractsImplCache(store, directory, 1000, 1000, 4, () -> 0L)
+                .retrieveNews(10).size(), "Old list in disk");
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the save while a slow retrieve is running: the list read before the save isn't cached.
+     */
+    @Test
+    public void testSaveNewsWhileRetrieving(@TempDir File directory) throws InterruptedException {
+        log.debug("Testing ..");
+
+        final ZonedDateTime now = ZonedDateTime.now(ZoneId.of("-3"));
+        final CountDownLatch read = new CountDownLatch(1);
+        final CountDownLatch saved = new CountDownLatch(1);
+        final AtomicInteger calls = new AtomicInteger();
+
+        // The first retrieve waits the save after reading the list
+        final Contracts store = new ContractsImpl() {
+            @Override
+            public List<News> retrieveNews(Integer size) {
+                final List<News> news = super.retrieveNews(size);
+                if (calls.incrementAndGet() == 1) {
+                    read.countDown();
+                    try {
+                        saved.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return news;
+            }
+        };
+        store.saveNews(new News("Old title", "The Source", "The Author", "https://url", null,
+                "The Description", "The Content", now.minusHours(1)));
+        final Contracts contracts = new ContractsImplCache(store, directory, 1000, 1000, 4, () -> 0L);
+
+        final Thread slow = new Thread(() -> contracts.retrieveNews(10));
+        slow.start();
+        Assertions.assertTrue(read.await(5, TimeUnit.SECONDS), "The store wasn't read");
+        contracts.saveNews(new News("New title", "The Source", "The Author", "https://url", null,
+                "The Description", "The Content", now));
+        saved.countDown();
+        slow.join(5000);
+
+        // Memory and disk (a new instance) without the old list
+        Assertions.assertEquals(2, contracts.retrieveNews(10).size(), "Old list cached");
+        Assertions.assertEquals(2, calls.get(), "The store wasn't called");
+        Assertions.assertEquals(2, new ContractsImplCache(store, directory, 1000, 1000, 4, () -> 0L)
+                .retrieveNews(10).size(), "Old list in disk");
+
+        log.debug("Done.");
+    }
+}
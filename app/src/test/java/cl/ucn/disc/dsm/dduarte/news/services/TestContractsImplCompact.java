@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.threeten.bp.ZoneId;
+import org.threeten.bp.ZonedDateTime;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+
+/**
+ * Testing of ContractsImplCompact
+ * @author Diego Duarte Diaz
+ */
+public final class TestContractsImplCompact {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(TestContractsImplCompact.class);
+
+    /**
+     * The first publishedAt.
+     */
+    private static final ZonedDateTime NOW = ZonedDateTime.now(ZoneId.of("-3"));
+
+    /**
+     * @return the news number i (published i minutes ago), like the converted from the NewsApi.
+     */
+    private static News news(final int i) {
+        // Each String is a new instance (as the parsed from the json)
+        final String description = "The description of the news number " + i + ", with some words more to have the size of a real one.";
+        return new News("The title of the news number " + i + " (something happened)",
+                new String("The Source " + (i % 30)),
+                new String("The Author " + (i % 300)),
+                "https://www.the-source-" + (i % 30) + ".com/news/" + i + "/the-title-of-the-news",
+                i % 5 == 0 ? null : "https://www.the-source-" + (i % 30) + ".com/images/" + i + ".jpg",
+                description, description, NOW.minusMinutes(i));
+    }
+
+    /**
+     * Testing the save and the retrieve.
+     */
+    @Test
+    public void testSaveAndRetrieve() {
+        log.debug("Testing ..");
+
+        final ContractsImplCompact contracts = new ContractsImplCompact(4);
+        Assertions.assertTrue(contracts.retrieveNews(10).isEmpty(), "Not empty?");
+
+        // Two batches (unsorted, with duplicated) + one
+        List<News> batch = new ArrayList<>();
+        for (int i = 19; i >= 10; i--) {
+            batch.add(news(i));
+        }
+        contracts.saveNews(batch);
+        batch.clear();
+        for (int i = 0; i < 10; i++) {
+            batch.add(news(i * 2));
+        }
+        contracts.saveNews(batch);
+        contracts.saveNews(news(1));
+        Assertions.assertEquals(16, contracts.size(), "Duplicated saved");
+
+        // The newest first, all the fields
+        List<News> newest = contracts.retrieveNews(100);
+        Assertions.assertEquals(16, newest.size(), "Wrong size!");
+        for (int i = 1; i < newest.size(); i++) {
+            Assertions.assertTrue(newest.get(i - 1).getPublishedAt().isAfter(newest.get(i).getPublishedAt()), "Wrong order");
+        }
+        for (News n : newest) {
+            final int i = Integer.parseInt(n.getUrl().split("/")[4]);
+            final News expected = news(i);
+            Assertions.assertEquals(expected.getId(), n.getId(), "Wrong id");
+            Assertions.assertEquals(expected.getTitle(), n.getTitle(), "Wrong title");
+            Assertions.assertEquals(expected.getSource(), n.getSource(), "Wrong source");
+            Assertions.assertEquals(expected.getAuthor(), n.getAuthor(), "Wrong author");
+            Assertions.assertEquals(expected.getUrlImage(), n.getUrlImage(), "Wrong urlImage");
+            Assertions.assertEquals(expected.getDescription(), n.getDescription(), "Wrong description");
+            Assertions.assertEquals(expected.getContent(), n.getContent(), "Wrong content");
+            Assertions.assertEquals(expected.getPublishedAt().toInstant(), n.getPublishedAt().toInstant(), "Wrong publishedAt");
+            Assertions.assertEquals(expected.getPublishedAt().getZone(), n.getPublishedAt().getZone(), "Wrong zone");
+        }
+        Assertions.assertEquals(news(0).getId(), contracts.retrieveNews(1).get(0).getId(), "Wrong newest");
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the order of the news published at the same time: by id, as the other stores.
+     */
+    @Test
+    public void testSameTime() {
+        log.debug("Testing ..");
+
+        final List<News> all = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            all.add(new News("The Title " + i, "The Source", "The Author", "https://url", null,
+                    "The Description", "The Content", i % 10 == 0 ? NOW.plusMinutes(1) : NOW));
+        }
+
+        // Several batches, the second one merged with the first
+        final ContractsImplCompact contracts = new ContractsImplCompact(4);
+        contracts.saveNews(all.subList(0, 30));
+        contracts.saveNews(all.subList(30, 50));
+
+        final List<News> expected = NewsTopK.select(all, all.size());
+        final List<News> newest = contracts.retrieveNews(all.size());
+        Assertions.assertEquals(expected.size(), newest.size(), "Wrong size!");
+        for (int i = 0; i < expected.size(); i++) {
+            Assertions.assertEquals(expected.get(i).getLongId(), newest.get(i).getLongId(), "Wrong order");
+        }
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the retained heap (JOL) of 100k news: List of News vs the columns.
+     */
+    @Test
+    public void testFootprint() {
+        log.debug("Testing ..");
+
+        final int size = 100_000;
+        final List<News> news = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            news.add(news(i));
+        }
+        final long objects = GraphLayout.parseInstance(news).totalSize();
+
+        final ContractsImplCompact contracts = new ContractsImplCompact(size);
+        contracts.saveNews(news);
+        final long columns = GraphLayout.parseInstance(contracts).totalSize();
+
+        final double ratio = (double) objects / columns;
+        log.debug("List of News: {} bytes, Compact: {} bytes, ratio: {}.", objects, columns, String.format("%.2f", ratio));
+        // The UTF-8 of the texts (~250 bytes by news) can't be reduced: the gain is the overhead of the objects
+        Assertions.assertTrue(ratio >= 2, "Ratio " + ratio + " < 2");
+
+        log.debug("Done.");
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.threeten.bp.ZoneId;
+import org.threeten.bp.ZonedDateTime;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+
+/**
+ * Testing of ContractsImplConcurrent
+ * @author Diego Duarte Diaz
+ */
+public final class TestContractsImplConcurrent {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(TestContractsImplConcurrent.class);
+
+    /**
+     * The number of writers.
+     */
+    private static final int WRITERS = 8;
+
+    /**
+     * The number of readers.
+     */
+    private static final int READERS = 4;
+
+    /**
+     * The news saved by each writer.
+     */
+    private static final int NEWS = 2_000;
+
+    /**
+     * The first publishedAt.
+     */
+    private static final ZonedDateTime NOW = ZonedDateTime.now(ZoneId.of("-3")).withNano(0);
+
+    /**
+     * @return the news number published the seconds ago.
+     */
+    private static News news(final int number) {
+        return new News("The Title " + number, "The Source", "The Author", null, null,
+                "The Description", "The Content", NOW.minusSeconds(number % 500));
+    }
+
+    /**
+     * Testing the save and retrieve in one thread.
+     */
+    @Test
+    public void testSaveAndRetrieve() {
+        log.debug("Testing ..");
+
+        final ContractsImplConcurrent contracts = new ContractsImplConcurrent();
+        Assertions.assertTrue(contracts.retrieveNews(10).isEmpty(), "Empty expected");
+
+        contracts.saveNews(news(3));
+        contracts.saveNews(news(1));
+        contracts.saveNews(news(1)); // duplicated
+        final List<News> batch = new ArrayList<>();
+        batch.add(news(2));
+        batch.add(news(4));
+        batch.add(news(3)); // duplicated
+        contracts.saveNews(batch);
+
+        Assertions.assertEquals(4, contracts.size(), "Wrong size!");
+        final List<News> news = contracts.retrieveNews(100);
+        Assertions.assertEquals(4, news.size(), "Wrong size!");
+        for (int i = 0; i < news.size(); i++) {
+            Assertions.assertEquals(NOW.minusSeconds(i + 1), news.get(i).getPublishedAt(), "Wrong order");
+        }
+        Assertions.assertEquals(2, contracts.retrieveNews(2).size(), "Wrong size!");
+        Assertions.assertTrue(contracts.retrieveNews(0).isEmpty(), "Empty expected");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> contracts.retrieveNews(-1));
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the writers (some of them duplicated, one by one and in batches) and the readers at the same time.
+     */
+    @Test
+    public void testStress() throws Exception {
+        log.debug("Testing ..");
+
+        final ContractsImplConcurrent contracts = new ContractsImplConcurrent();
+        final ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicBoolean writing = new AtomicBoolean(true);
+
+        // The writers: the half of the news are saved by two writers
+        final List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            final int first = w * NEWS / 2;
+            final boolean batches = w % 2 == 0;
+            writers.add(executor.submit(() -> {
+                start.await();
+                final List<News> batch = new ArrayList<>();
+                for (int i = first; i < first + NEWS; i++) {
+                    if (batches) {
+                        batch.add(news(i));
+                        if (batch.size() == 50) {
+                            contracts.saveNews(new ArrayList<>(batch));
+                            batch.clear();
+                        }
+                    } else {
+                        contracts.saveNews(news(i));
+                        // Read your writes
+                        Assertions.assertTrue(contracts.size() > 0, "Not published");
+                    }
+                }
+                contracts.saveNews(batch);
+                return null;
+            }));
+        }
+
+        // The readers: always sorted, without duplicated and never smaller
+        final List<Future<Integer>> readers = new ArrayList<>();
+        for (int r = 0; r < READERS; r++) {
+            readers.add(executor.submit(() -> {
+                start.await();
+                int reads = 0;
+                int last = 0;
+                while (writing.get()) {
+                    final List<News> news = contracts.retrieveNews(100 + reads % 1_000);
+                    assertSorted(news);
+                    final int size = contracts.size();
+                    Assertions.assertTrue(size >= last, "The snapshot was smaller");
+                    last = size;
+                    reads++;
+                }
+                return reads;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : writers) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        writing.set(false);
+        for (Future<Integer> future : readers) {
+            log.debug("Reads: {}", future.get(60, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        final int expected = (WRITERS + 1) * NEWS / 2;
+        Assertions.assertEquals(expected, contracts.size(), "Wrong size!");
+        final List<News> all = contracts.retrieveNews(Integer.MAX_VALUE);
+        Assertions.assertEquals(expected, all.size(), "Wrong size!");
+        assertSorted(all);
+        Assertions.assertEquals(expected, all.stream().mapToLong(News::getLongId).distinct().count(), "Duplicated!");
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Assert the order: publishedAt (newest first) and then id.
+     */
+    private static void assertSorted(final List<News> news) {
+        for (int i = 1; i < news.size(); i++) {
+            final News previous = news.get(i - 1);
+            final News current = news.get(i);
+            final int compare = Long.compare(current.getPublishedAtMillis(), previous.getPublishedAtMillis());
+            Assertions.assertTrue(compare < 0 || (compare == 0 && previous.getLongId() < current.getLongId()), "Wrong order");
+        }
+    }
+}
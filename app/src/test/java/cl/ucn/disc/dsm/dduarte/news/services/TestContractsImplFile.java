@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.threeten.bp.ZoneId;
+import org.threeten.bp.ZonedDateTime;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+
+/**
+ * Testing of ContractsImplFile
+ * @author Diego Duarte Diaz
+ */
+public final class TestContractsImplFile {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(TestContractsImplFile.class);
+
+    /**
+     * The first publishedAt.
+     */
+    private static final ZonedDateTime NOW = ZonedDateTime.now(ZoneId.of("-3"));
+
+    /**
+     * @return the news number i (published i hours ago).
+     */
+    private static News news(final int i) {
+        return new News("The Title " + i, "The Source", "The Author", "https://url/" + i, null,
+                "The Description", "The Content", NOW.minusHours(i));
+    }
+
+    /**
+     * Testing the save and the reload of the file.
+     */
+    @Test
+    public void testSaveAndReload(@TempDir File directory) throws IOException {
+        log.debug("Testing ..");
+
+        final File file = new File(directory, "news.db");
+        ContractsImplFile contracts = new ContractsImplFile(file);
+        Assertions.assertTrue(contracts.retrieveNews(10).isEmpty(), "Not empty?");
+
+        // One batch (unsorted, with duplicated)
+        List<News> batch = new ArrayList<>();
+        for (int i = 9; i >= 0; i--) {
+            batch.add(news(i));
+        }
+        batch.add(news(3));
+        contracts.saveNews(batch);
+        contracts.saveNews(news(5));
+        Assertions.assertEquals(10, contracts.size(), "Duplicated saved");
+
+        // The newest first
+        List<News> newest = contracts.retrieveNews(3);
+        Assertions.assertEquals(3, newest.size(), "Wrong size!");
+        Assertions.assertEquals(news(0).getId(), newest.get(0).getId(), "Wrong order");
+        Assertions.assertEquals(news(2).getId(), newest.get(2).getId(), "Wrong order");
+
+        // Since 4 hours ago (0 .. 4)
+        Assertions.assertEquals(5, contracts.retrieveNews(NOW.minusHours(4), 100).size(), "Wrong range");
+        Assertions.assertEquals(2, contracts.retrieveNews(NOW.minusHours(4), 2).size(), "Wrong range");
+
+        // Reload (cold start)
+        contracts = new ContractsImplFile(file);
+        Assertions.assertEquals(10, contracts.size(), "Wrong size after reload");
+        Assertions.assertEquals(news(0).getId(), contracts.retrieveNews(1).get(0).getId(), "Wrong order after reload");
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing a broken batch at the end of the file.
+     */
+    @Test
+    public void testBrokenTail(@TempDir File directory) throws IOException {
+        log.debug("Testing ..");
+
+        final File file = new File(directory, "news.db");
+        new ContractsImplFile(file).saveNews(news(1));
+
+        // Write half record
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(new byte[]{0, 0, 1, 0, 1, 2, 3});
+        }
+
+        ContractsImplFile contracts = new ContractsImplFile(file);
+        Assertions.assertEquals(1, contracts.size(), "Wrong size!");
+
+        // The file still works
+        contracts.saveNews(news(2));
+        Assertions.assertEquals(2, new ContractsImplFile(file).size(), "Wrong size!");
+
+        log.debug("Done.");
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.threeten.bp.ZoneId;
+import org.threeten.bp.ZonedDateTime;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+
+/**
+ * Testing of ContractsImplRing
+ * @author Diego Duarte Diaz
+ */
+public final class TestContractsImplRing {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(TestContractsImplRing.class);
+
+    /**
+     * The first publishedAt.
+     */
+    private static final ZonedDateTime NOW = ZonedDateTime.now(ZoneId.of("-3")).withNano(0);
+
+    /**
+     * @return the news number (published number minutes after NOW).
+     */
+    private static News news(final int number) {
+        return new News("The Title " + number, "The Source", "The Author", null, null,
+                "The Description", "The Content", NOW.plusMinutes(number));
+    }
+
+    /**
+     * @return the titles of the news.
+     */
+    private static List<String> titles(final List<News> news) {
+        final List<String> titles = new ArrayList<>();
+        for (News n : news) {
+            titles.add(n.getTitle());
+        }
+        return titles;
+    }
+
+    /**
+     * Testing the save, the eviction of the oldest and the retrieve of the latest.
+     */
+    @Test
+    public void testEviction() {
+        log.debug("Testing ..");
+
+        final ContractsImplRing contracts = new ContractsImplRing(3);
+        Assertions.assertTrue(contracts.retrieveNews(10).isEmpty(), "Empty expected");
+
+        for (int i = 0; i < 10; i++) {
+            contracts.saveNews(news(i));
+            Assertions.assertEquals(Math.min(i + 1, 3), contracts.size(), "Wrong size!");
+        }
+
+        // Bigger than the size: no exception
+        final List<News> news = contracts.retrieveNews(10);
+        Assertions.assertEquals(3, news.size(), "Wrong size!");
+        Assertions.assertEquals("The Title 9", news.get(0).getTitle(), "Wrong order");
+        Assertions.assertEquals("The Title 7", news.get(2).getTitle(), "Wrong order");
+        Assertions.assertEquals(2, contracts.retrieveNews(2).size(), "Wrong size!");
+        Assertions.assertTrue(contracts.retrieveNews(0).isEmpty(), "Empty expected");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> contracts.retrieveNews(-1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ContractsImplRing(0));
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the duplicated: rejected while in the ring, accepted again after the eviction.
+     */
+    @Test
+    public void testDuplicated() {
+        log.debug("Testing ..");
+
+        final ContractsImplRing contracts = new ContractsImplRing(2);
+        contracts.saveNews(news(1));
+        contracts.saveNews(news(1));
+        Assertions.assertEquals(1, contracts.size(), "Duplicated saved");
+
+        contracts.saveNews(news(2));
+        contracts.saveNews(news(3));
+        contracts.saveNews(news(1));
+        Assertions.assertEquals(2, contracts.size(), "Wrong size!");
+        Assertions.assertEquals("The Title 1", contracts.retrieveNews(1).get(0).getTitle(), "Evicted news rejected");
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the batches: sorted by publishedAt, without duplicated and only the newest if bigger than the ring.
+     */
+    @Test
+    public void testBatch() {
+        log.debug("Testing ..");
+
+        final ContractsImplRing contracts = new ContractsImplRing(4);
+        final List<News> batch = new ArrayList<>();
+        for (int i = 5; i >= 0; i--) {
+            batch.add(news(i));
+            batch.add(news(i)); // duplicated
+        }
+        contracts.saveNews(batch);
+
+        Assertions.assertEquals(4, contracts.size(), "Wrong size!");
+        final List<String> expected = new ArrayList<>();
+        for (int i = 5; i >= 2; i--) {
+            expected.add("The Title " + i);
+        }
+        Assertions.assertEquals(expected, titles(contracts.retrieveNews(4)), "Wrong news");
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the view: the news replaced after the retrieve can't be read.
+     */
+    @Test
+    public void testView() {
+        log.debug("Testing ..");
+
+        final ContractsImplRing contracts = new ContractsImplRing(3);
+        for (int i = 0; i < 3; i++) {
+            contracts.saveNews(news(i));
+        }
+        final List<News> view = contracts.retrieveNews(3);
+        final List<News> copy = new ArrayList<>(view);
+
+        // Replace the oldest of the view (the last one)
+        contracts.saveNews(news(3));
+        Assertions.assertEquals("The Title 2", view.get(0).getTitle(), "Wrong news");
+        Assertions.assertThrows(ConcurrentModificationException.class, () -> view.get(2));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> view.get(3));
+        Assertions.assertEquals("The Title 0", copy.get(2).getTitle(), "The copy was changed");
+
+        log.debug("Done.");
+    }
+}
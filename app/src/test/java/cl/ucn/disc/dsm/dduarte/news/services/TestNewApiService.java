@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import com.kwabenaberko.newsapilib.models.response.ArticleResponse;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+
+/**
+ * Testing of NewApiService against a local server (http cache and conditional requests).
+ * @author Diego Duarte Diaz
+ */
+public final class TestNewApiService {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(TestNewApiService.class);
+
+    /**
+     * The local server.
+     */
+    private MockWebServer server;
+
+    @BeforeEach
+    public void start() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterEach
+    public void stop() throws IOException {
+        server.shutdown();
+    }
+
+    /**
+     * @return the recorded response of top-headlines.
+     */
+    private static Buffer payload() throws IOException {
+        try (InputStream in = TestNewApiService.class.getResourceAsStream("/fixtures/top-headlines.json")) {
+            return new Buffer().readFrom(in);
+        }
+    }
+
+    /**
+     * Testing the revalidation: the second request is a 304 served from the cache.
+     */
+    @Test
+    public void testConditionalRequest(@TempDir File directory) throws Exception {
+        log.debug("Testing ..");
+
+        server.enqueue(new MockResponse()
+                .setHeader("Content-Type", "application/json; charset=utf-8")
+                .setHeader("ETag", "\"v1\"")
+                .setBody(payload()));
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"v1\""));
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"v1\""));
+
+        NewApiService service = new NewApiService("the-key", directory, server.url("/v2/").toString());
+
+        // Full download
+        ArticleResponse first = service.getTopHeadlines("general", 100, 1);
+        Assertions.assertEquals(100, first.getArticles().size(), "Wrong size!");
+        RecordedRequest request = server.takeRequest();
+        Assertions.assertNull(request.getHeader("If-None-Match"), "Conditional without cache?");
+        Assertions.assertEquals("gzip", request.getHeader("Accept-Encoding"), "Without gzip");
+
+        // Unchanged: 304 + cache
+        ArticleResponse second = service.getTopHeadlines("general", 100, 1);
+        Assertions.assertEquals(100, second.getArticles().size(), "Wrong size!");
+        Assertions.assertEquals("\"v1\"", server.takeRequest().getHeader("If-None-Match"), "Not conditional");
+
+        // The streaming path use the same cache
+        List<News> news = new ArrayList<>();
+        Assertions.assertEquals(100, service.getTopHeadlines("general", 100, 1, news::add), "Wrong totalResults");
+        Assertions.assertFalse(news.isEmpty(), "Empty List? :(");
+        Assertions.assertEquals("\"v1\"", server.takeRequest().getHeader("If-None-Match"), "Not conditional");
+
+        Assertions.assertEquals(3, service.getCache().networkCount(), "Wrong network count");
+        Assertions.assertEquals(2, service.getCache().hitCount(), "Wrong hit count");
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the error of NewsApi.
+     */
+    @Test
+    public void testError() {
+        log.debug("Testing ..");
+
+        server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "30").setBody("{\"status\":\"error\",\"code\":\"rateLimited\"}"));
+
+        NewApiService service = new NewApiService("the-key", null, server.url("/v2/").toString());
+        NewsApiException ex = Assertions.assertThrows(NewsApiException.class, () -> service.getTopHeadlines("general", 10, 1), "Error ignored");
+        Assertions.assertTrue(ex.isRateLimited(), "Wrong code");
+        Assertions.assertEquals(30_000, ex.getRetryAfter(), "Wrong Retry-After");
+
+        log.debug("Done.");
+    }
+}
@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+
+/**
+ * Testing of NewsApiScheduler against a local server.
+ *
+ * @author Diego Duarte Diaz
+ */
+public final class TestNewsApiScheduler {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(TestNewsApiScheduler.class);
+
+    /**
+     * The local server.
+     */
+    private MockWebServer server;
+
+    /**
+     * The scheduler to test.
+     */
+    private NewsApiScheduler scheduler;
+
+    @BeforeEach
+    public void start() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterEach
+    public void stop() throws IOException {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        server.shutdown();
+    }
+
+    /**
+     * @return the scheduler against the local server.
+     */
+    private NewsApiScheduler scheduler(final int capacity, final long refill, final long window) {
+        scheduler = new NewsApiScheduler(new NewApiService("the-key", null, server.url("/v2/").toString()), capacity, refill, window);
+        return scheduler;
+    }
+
+    /**
+     * @return the recorded response of top-headlines.
+     */
+    private static MockResponse ok() throws IOException {
+        try (InputStream in = TestNewsApiScheduler.class.getResourceAsStream("/fixtures/top-headlines.json")) {
+            return new MockResponse()
+                    .setHeader("Content-Type", "application/json; charset=utf-8")
+                    .setBody(new Buffer().readFrom(in));
+        }
+    }
+
+    /**
+     * @return the page of the request.
+     */
+    private static String page(final RecordedRequest request) {
+        return request.getRequestUrl().queryParameter("page");
+    }
+
+    /**
+     * Testing the identical requests inside the window: only one to the server.
+     */
+    @Test
+    public void testCoalescing() throws Exception {
+        log.debug("Testing ..");
+
+        server.enqueue(ok());
+        server.enqueue(ok());
+        NewsApiScheduler scheduler = scheduler(10, 1000, 60_000);
+
+        CompletableFuture<List<News>> first = scheduler.getTopHeadlines("general", 100, 1, NewsApiScheduler.Priority.BACKGROUND);
+        CompletableFuture<List<News>> second = scheduler.getTopHeadlines("general", 100, 1, NewsApiScheduler.Priority.INTERACTIVE);
+        Assertions.assertFalse(first.get(5, TimeUnit.SECONDS).isEmpty(), "Empty List? :(");
+        Assertions.assertSame(first.get(), second.get(5, TimeUnit.SECONDS), "Not coalesced");
+
+        // Completed but inside the window
+        Assertions.assertSame(first.get(), scheduler.getTopHeadlines("general", 100, 1, NewsApiScheduler.Priority.BACKGROUND).get(5, TimeUnit.SECONDS), "Not reused");
+        Assertions.assertEquals(1, server.getRequestCount(), "Wrong number of requests");
+
+        // Other page, other request
+        scheduler.getTopHeadlines("general", 100, 2, NewsApiScheduler.Priority.BACKGROUND).get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(2, server.getRequestCount(), "Wrong number of requests");
+
+        // Cancel one caller doesn't cancel the other
+        server.enqueue(ok());
+        CompletableFuture<List<News>> cancelled = scheduler.getTopHeadlines("general", 100, 3, NewsApiScheduler.Priority.BACKGROUND);
+        CompletableFuture<List<News>> alive = scheduler.getTopHeadlines("general", 100, 3, NewsApiScheduler.Priority.BACKGROUND);
+        cancelled.cancel(true);
+        Assertions.assertFalse(alive.get(5, TimeUnit.SECONDS).isEmpty(), "Empty List? :(");
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the token bucket: the burst and then one request by refill.
+     */
+    @Test
+    public void testTokenBucket() throws Exception {
+        log.debug("Testing ..");
+
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(ok());
+        }
+        NewsApiScheduler scheduler = scheduler(2, 500, 0);
+
+        final long start = System.nanoTime();
+        scheduler.getTopHeadlines("general", 100, 1, NewsApiScheduler.Priority.BACKGROUND).get(5, TimeUnit.SECONDS);
+        scheduler.getTopHeadlines("general", 100, 2, NewsApiScheduler.Priority.BACKGROUND).get(5, TimeUnit.SECONDS);
+        final long burst = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        Assertions.assertTrue(burst < 450, "The burst was delayed: " + burst);
+
+        // Without tokens: wait for the refill
+        scheduler.getTopHeadlines("general", 100, 3, NewsApiScheduler.Priority.BACKGROUND).get(5, TimeUnit.SECONDS);
+        final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        Assertions.assertTrue(elapsed >= 450, "Without rate limit: " + elapsed);
+        Assertions.assertEquals(3, server.getRequestCount(), "Wrong number of requests");
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the priority: the interactive requests go before the background ones.
+     */
+    @Test
+    public void testPriority() throws Exception {
+        log.debug("Testing ..");
+
+        for (int i = 0; i < 4; i++) {
+            server.enqueue(ok());
+        }
+        NewsApiScheduler scheduler = scheduler(1, 300, 0);
+
+        // Use the only token
+        scheduler.getTopHeadlines("general", 100, 1, NewsApiScheduler.Priority.BACKGROUND).get(5, TimeUnit.SECONDS);
+
+        // Waiting for the refill
+        CompletableFuture<?> background = scheduler.getTopHeadlines("general", 100, 2, NewsApiScheduler.Priority.BACKGROUND);
+        CompletableFuture<?> upgraded = scheduler.getTopHeadlines("general", 100, 3, NewsApiScheduler.Priority.BACKGROUND);
+        CompletableFuture<?> interactive = scheduler.getTopHeadlines("general", 100, 4, NewsApiScheduler.Priority.INTERACTIVE);
+        // Same request, now somebody is waiting
+        scheduler.getTopHeadlines("general", 100, 3, NewsApiScheduler.Priority.INTERACTIVE);
+        CompletableFuture.allOf(background, upgraded, interactive).get(5, TimeUnit.SECONDS);
+
+        Assertions.assertEquals("1", page(server.takeRequest()), "Wrong order");
+        Assertions.assertEquals("3", page(server.takeRequest()), "Wrong order");
+        Assertions.assertEquals("4", page(server.takeRequest()), "Wrong order");
+        Assertions.assertEquals("2", page(server.takeRequest()), "Wrong order");
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the 429: wait the Retry-After and retry.
+     */
+    @Test
+    public void testRetryAfter() throws Exception {
+        log.debug("Testing ..");
+
+        server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "1")
+                .setBody("{\"status\":\"error\",\"code\":\"rateLimited\"}"));
+        server.enqueue(ok());
+        NewsApiScheduler scheduler = scheduler(10, 1000, 0);
+
+        // The stream of the pager
+        final List<News> news = new CopyOnWriteArrayList<>();
+        final long start = System.nanoTime();
+        final int total = scheduler.getTopHeadlines("general", 100, 1, NewsApiScheduler.Priority.INTERACTIVE, news::add)
+                .get(5, TimeUnit.SECONDS);
+        final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Assertions.assertTrue(total > 0, "Wrong totalResults");
+        Assertions.assertFalse(news.isEmpty(), "Empty List? :(");
+        Assertions.assertTrue(elapsed >= 1000, "Retry-After ignored: " + elapsed);
+        Assertions.assertEquals(2, server.getRequestCount(), "Wrong number of requests");
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the error: the future fail and the error isn't coalesced.
+     */
+    @Test
+    public void testError() throws Exception {
+        log.debug("Testing ..");
+
+        server.enqueue(new MockResponse().setResponseCode(401).setBody("{\"status\":\"error\",\"code\":\"apiKeyInvalid\"}"));
+        server.enqueue(ok());
+        NewsApiScheduler scheduler = scheduler(10, 1000, 60_000);
+
+        ExecutionException ex = Assertions.assertThrows(ExecutionException.class,
+                () -> scheduler.getTopHeadlines("general", 100, 1, NewsApiScheduler.Priority.INTERACTIVE).get(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(ex.getCause() instanceof NewsApiException, "Wrong exception");
+        Assertions.assertEquals(401, ((NewsApiException) ex.getCause()).getCode(), "Wrong code");
+
+        // The error isn't reused
+        Assertions.assertFalse(scheduler.getTopHeadlines("general", 100, 1, NewsApiScheduler.Priority.INTERACTIVE)
+                .get(5, TimeUnit.SECONDS).isEmpty(), "Empty List? :(");
+        Assertions.assertEquals(2, server.getRequestCount(), "Wrong number of requests");
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the fan-out of the categories by the scheduler: the requests at the same time and the
+     * requests not sent before the timeout are discarded (no quota used).
+     */
+    @Test
+    public void testFanOut() throws Exception {
+        log.debug("Testing ..");
+
+        final MockResponse ok = ok().setHeadersDelay(300, TimeUnit.MILLISECONDS);
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return ok.clone();
+            }
+        });
+
+        // Tokens for all the categories: the time of the slowest (not the sum)
+        ContractImplNewsApi newsApi = new ContractImplNewsApi(scheduler(10, 60_000, 0), NewsApiScheduler.Priority.INTERACTIVE);
+        final List<String> categories = Arrays.asList("business", "health", "science", "sports");
+        long start = System.nanoTime();
+        List<News> news = newsApi.retrieveNews(categories, 20, 5_000);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        Assertions.assertFalse(news.isEmpty(), "Empty List? :(");
+        Assertions.assertEquals(4, server.getRequestCount(), "Wrong number of requests");
+        Assertions.assertTrue(elapsed < 1_000, "Not concurrent? " + elapsed + " ms");
+        scheduler.shutdown();
+
+        // Only 2 tokens: the rest wait, the fan-out timeout and the waiting requests are discarded
+        newsApi = new ContractImplNewsApi(scheduler(2, 60_000, 0), NewsApiScheduler.Priority.INTERACTIVE);
+        start = System.nanoTime();
+        news = newsApi.retrieveNews(ContractImplNewsApi.CATEGORIES, 20, 1_000);
+        elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        Assertions.assertFalse(news.isEmpty(), "Without the partial result");
+        Assertions.assertTrue(elapsed < 2_000, "Timeout ignored? " + elapsed + " ms");
+        Thread.sleep(200);
+        Assertions.assertEquals(0, scheduler.getPending(), "The requests without callers are waiting");
+        Assertions.assertEquals(4 + 2, server.getRequestCount(), "Wrong number of requests");
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the cancel of the request not sent: only when all the callers are cancelled.
+     */
+    @Test
+    public void testCancel() throws Exception {
+        log.debug("Testing ..");
+
+        server.enqueue(ok());
+        server.enqueue(ok());
+        NewsApiScheduler scheduler = scheduler(1, 60_000, 0);
+
+        // Use the only token
+        scheduler.getTopHeadlines("general", 100, 1, NewsApiScheduler.Priority.INTERACTIVE).get(5, TimeUnit.SECONDS);
+
+        // Waiting for the token (the same consumer: coalesced)
+        final Consumer<News> consumer = news -> { };
+        CompletableFuture<?> first = scheduler.getTopHeadlines("general", 100, 2, NewsApiScheduler.Priority.BACKGROUND, consumer);
+        CompletableFuture<?> second = scheduler.getTopHeadlines("general", 100, 2, NewsApiScheduler.Priority.INTERACTIVE, consumer);
+        Thread.sleep(100);
+        Assertions.assertEquals(1, scheduler.getPending(), "Wrong pending");
+        first.cancel(false);
+        Assertions.assertEquals(1, scheduler.getPending(), "Cancelled with one caller");
+        second.cancel(false);
+        Assertions.assertEquals(0, scheduler.getPending(), "Not cancelled without callers");
+        Assertions.assertEquals(1, server.getRequestCount(), "Wrong number of requests");
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the parse of Retry-After: seconds and http date.
+     */
+    @Test
+    public void testParseRetryAfter() {
+        log.debug("Testing ..");
+
+        Assertions.assertEquals(-1, NewsApiException.parseRetryAfter(null, 0), "Wrong default");
+        Assertions.assertEquals(-1, NewsApiException.parseRetryAfter("soon", 0), "Wrong default");
+        Assertions.assertEquals(120_000, NewsApiException.parseRetryAfter(" 120 ", 0), "Wrong seconds");
+        // Thu, 01 Jan 1970 00:01:40 GMT = 100 seconds
+        Assertions.assertEquals(40_000, NewsApiException.parseRetryAfter("Thu, 01 Jan 1970 00:01:40 GMT", 60_000), "Wrong date");
+        Assertions.assertEquals(0, NewsApiException.parseRetryAfter("Thu, 01 Jan 1970 00:01:40 GMT", 200_000), "Wrong date");
+
+        log.debug("Done.");
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.threeten.bp.ZoneId;
+import org.threeten.bp.ZonedDateTime;
+
+import java.util.Arrays;
+import java.util.List;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+
+/**
+ * Testing of NewsIndex
+ * @author Diego Duarte Diaz
+ */
+public final class TestNewsIndex {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(TestNewsIndex.class);
+
+    /**
+     * The first publishedAt.
+     */
+    private static final ZonedDateTime NOW = ZonedDateTime.now(ZoneId.of("-3"));
+
+    /**
+     * @return the news (published hours ago).
+     */
+    private static News news(final String title, final String description, final int hours) {
+        return new News(title, "The Source", "The Author", "https://url", null, description, description, NOW.minusHours(hours));
+    }
+
+    /**
+     * Testing the tokens.
+     */
+    @Test
+    public void testTokenize() {
+        log.debug("Testing ..");
+
+        Assertions.assertEquals(Arrays.asList("elecciones", "en", "union", "europea", "2020"),
+                NewsIndex.tokenize("¡Elecciones en Unión Europea (2020)!"), "Wrong tokens");
+        Assertions.assertTrue(NewsIndex.tokenize("a - b").isEmpty(), "Short tokens");
+        Assertions.assertTrue(NewsIndex.tokenize(null).isEmpty(), "Null text");
+        Assertions.assertEquals(Arrays.asList("b"), NewsIndex.tokenize("a - b", true), "Short prefix");
+        Assertions.assertTrue(NewsIndex.tokenize("a - b ", true).isEmpty(), "Short tokens");
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the search, the prefix search and the ranking.
+     */
+    @Test
+    public void testSearch() {
+        log.debug("Testing ..");
+
+        final NewsIndex index = new NewsIndex();
+        final News vaccine = news("The vaccine is approved", "The health authority approved it", 1);
+        final News market = news("The market is up", "Investors celebrate the vaccine", 1);
+        final News oldVaccine = news("The vaccine trials start", "The first phase of the trials", 48);
+        final News football = news("Football results", "The season ends", 0);
+        index.addAll(Arrays.asList(vaccine, market, oldVaccine, football));
+
+        // Duplicated
+        Assertions.assertFalse(index.add(news("The vaccine is approved", "Other description", 0)), "Duplicated indexed");
+        Assertions.assertEquals(4, index.size(), "Wrong size!");
+
+        // Title > description, new > old
+        List<News> result = index.search("Vaccine", 10);
+        Assertions.assertEquals(3, result.size(), "Wrong size!");
+        Assertions.assertSame(vaccine, result.get(0), "Wrong ranking");
+        Assertions.assertSame(market, result.get(2), "Wrong ranking");
+        Assertions.assertSame(oldVaccine, result.get(1), "Wrong ranking");
+
+        // Top-k
+        Assertions.assertEquals(Arrays.asList(vaccine, oldVaccine), index.search("vaccine", 2), "Wrong top-k");
+
+        // More tokens = more relevance
+        Assertions.assertSame(oldVaccine, index.search("vaccine trials", 10).get(0), "Wrong ranking");
+
+        // Prefix
+        Assertions.assertTrue(index.search("vacc", 10).isEmpty(), "Prefix in exact search");
+        Assertions.assertEquals(3, index.searchPrefix("vacc", 10).size(), "Wrong prefix search");
+        Assertions.assertEquals(Arrays.asList(football), index.searchPrefix("foot seas", 10), "Wrong prefix search");
+
+        // The first character typed
+        Assertions.assertEquals(3, index.searchPrefix("v", 10).size(), "Wrong one character prefix search");
+        Assertions.assertEquals(Arrays.asList(football), index.searchPrefix("football r", 10), "Wrong prefix search");
+        Assertions.assertTrue(index.search("v", 10).isEmpty(), "Short token in exact search");
+
+        // Repeated tokens count once
+        Assertions.assertEquals(index.search("vaccine trials", 10), index.search("vaccine vaccine vaccine trials", 10),
+                "Repeated tokens counted twice");
+        Assertions.assertEquals(index.searchPrefix("vaccine trials", 10), index.searchPrefix("vacc vaccine trials", 10),
+                "Repeated prefixes counted twice");
+
+        // Nothing
+        Assertions.assertTrue(index.search("nothing", 10).isEmpty(), "Found nothing?");
+        Assertions.assertTrue(index.search("", 10).isEmpty(), "Empty query");
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the decorator.
+     */
+    @Test
+    public void testContractsImplIndexed() {
+        log.debug("Testing ..");
+
+        final ContractsImplIndexed contracts = new ContractsImplIndexed(new ContractsImpl());
+        contracts.saveNews(news("The vaccine is approved", "The health authority approved it", 1));
+        contracts.saveNews(Arrays.asList(news("Football results", "The season ends", 0)));
+
+        Assertions.assertEquals(1, contracts.search("vaccine", 10).size(), "Not indexed");
+        Assertions.assertEquals(1, contracts.searchPrefix("foot", 10).size(), "Not indexed");
+
+        log.debug("Done.");
+    }
+}
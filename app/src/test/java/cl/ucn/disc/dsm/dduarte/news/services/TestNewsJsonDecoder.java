@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import com.google.gson.Gson;
+import com.kwabenaberko.newsapilib.models.Article;
+import com.kwabenaberko.newsapilib.models.response.ArticleResponse;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+
+/**
+ * Testing of NewsJsonDecoder: same News that the Gson path, with less time and allocation.
+ * @author Diego Duarte Diaz
+ */
+public final class TestNewsJsonDecoder {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(TestNewsJsonDecoder.class);
+
+    /**
+     * The recorded response of top-headlines (100 articles).
+     */
+    private static byte[] payload;
+
+    /**
+     * Load the fixture.
+     */
+    @BeforeAll
+    public static void loadPayload() throws IOException {
+        try (InputStream in = TestNewsJsonDecoder.class.getResourceAsStream("/fixtures/top-headlines.json")) {
+            Assertions.assertNotNull(in, "Fixture not found");
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            payload = out.toByteArray();
+        }
+    }
+
+    /**
+     * @return the reader of the payload.
+     */
+    private static Reader reader() {
+        return new InputStreamReader(new ByteArrayInputStream(payload), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The current path: Gson to ArticleResponse and then article2news.
+     */
+    private static List<News> decodeGson(final Gson gson) {
+        ArticleResponse response = gson.fromJson(reader(), ArticleResponse.class);
+        List<News> news = new ArrayList<>();
+        for (Article article : response.getArticles()) {
+            News n = ContractImplNewsApi.article2news(article);
+            if (n != null) {
+                news.add(n);
+            }
+        }
+        return news;
+    }
+
+    /**
+     * The streaming path.
+     */
+    private static List<News> decodeStreaming() throws IOException {
+        List<News> news = new ArrayList<>();
+        Assertions.assertEquals(100, NewsJsonDecoder.decode(reader(), news::add), "Wrong totalResults");
+        return news;
+    }
+
+    /**
+     * Testing the same result of both paths.
+     */
+    @Test
+    public void testDecode() throws IOException {
+        log.debug("Testing ..");
+
+        List<News> expected = decodeGson(new Gson());
+        List<News> news = decodeStreaming();
+
+        Assertions.assertFalse(news.isEmpty(), "Empty List? :(");
+        Assertions.assertEquals(expected.size(), news.size(), "Wrong size!");
+        for (int i = 0; i < news.size(); i++) {
+            Assertions.assertEquals(expected.get(i).getId(), news.get(i).getId(), "Wrong id");
+            Assertions.assertEquals(expected.get(i).getUrl(), news.get(i).getUrl(), "Wrong url");
+            Assertions.assertEquals(expected.get(i).getUrlImage(), news.get(i).getUrlImage(), "Wrong urlImage");
+            Assertions.assertEquals(expected.get(i).getDescription(), news.get(i).getDescription(), "Wrong description");
+            Assertions.assertEquals(expected.get(i).getPublishedAt(), news.get(i).getPublishedAt(), "Wrong publishedAt");
+        }
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Benchmark of both paths over the fixture (time and bytes allocated by op).
+     */
+    @Test
+    public void testBenchmark() throws IOException {
+        log.debug("Testing ..");
+
+        final int warmup = 200;
+        final int iterations = 500;
+        final Gson gson = new Gson();
+
+        for (int i = 0; i < warmup; i++) {
+            decodeGson(gson);
+            decodeStreaming();
+        }
+
+        long allocated = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            decodeGson(gson);
+        }
+        final long gsonTime = (System.nanoTime() - start) / iterations;
+        final long gsonBytes = (allocatedBytes() - allocated) / iterations;
+
+        allocated = allocatedBytes();
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            decodeStreaming();
+        }
+        final long streamingTime = (System.nanoTime() - start) / iterations;
+        final long streamingBytes = (allocatedBytes() - allocated) / iterations;
+
+        log.info("Gson + article2news: {} us/op, {} bytes/op.", gsonTime / 1000, gsonBytes);
+        log.info("NewsJsonDecoder    : {} us/op, {} bytes/op.", streamingTime / 1000, streamingBytes);
+
+        if (gsonBytes > 0) {
+            Assertions.assertTrue(streamingBytes < gsonBytes, "The streaming decoder allocates more");
+        }
+
+        log.debug("Done.");
+    }
+
+    /**
+     * @return the bytes allocated by the current thread (0 if not supported).
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
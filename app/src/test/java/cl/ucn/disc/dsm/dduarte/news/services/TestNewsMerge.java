@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.threeten.bp.ZoneId;
+import org.threeten.bp.ZonedDateTime;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+
+/**
+ * Testing of NewsMerge
+ * @author Diego Duarte Diaz
+ */
+public final class TestNewsMerge {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(TestNewsMerge.class);
+
+    /**
+     * The first publishedAt.
+     */
+    private static final ZonedDateTime NOW = ZonedDateTime.now(ZoneId.of("-3"));
+
+    /**
+     * @return the list of news (newest first) published the minutes ago.
+     */
+    private static List<News> news(final String category, final int... minutes) {
+        List<News> news = new ArrayList<>();
+        for (int minute : minutes) {
+            news.add(new News("The Title " + minute, category, "The Author", null, null,
+                    "The Description", "The Content", NOW.minusMinutes(minute)));
+        }
+        return news;
+    }
+
+    /**
+     * Testing the merge.
+     */
+    @Test
+    public void testMerge() {
+        log.debug("Testing ..");
+
+        List<News> news = NewsMerge.merge(Arrays.asList(
+                news("business", 1, 4, 7, 10),
+                news("sports", 2, 5, 8),
+                news("business", 4, 7), // duplicated
+                new ArrayList<>(),
+                news("science", 3, 6, 9)
+        ), 8);
+
+        Assertions.assertEquals(8, news.size(), "Wrong size!");
+        for (int i = 0; i < news.size(); i++) {
+            Assertions.assertEquals(NOW.minusMinutes(i + 1), news.get(i).getPublishedAt(), "Wrong order");
+        }
+        Assertions.assertEquals(10, NewsMerge.merge(Arrays.asList(news("business", 1, 4, 7, 10),
+                news("sports", 2, 5, 8), news("science", 3, 6, 9)), 100).size(), "Wrong size!");
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the fan-out: the latency of the slowest and the partial result.
+     */
+    @Test
+    public void testFanOut() {
+        log.debug("Testing ..");
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        List<Callable<List<News>>> requests = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            final int category = i;
+            requests.add(() -> {
+                Thread.sleep(200);
+                return news("category " + category, category, category + 3);
+            });
+        }
+
+        // Concurrent: ~200 ms, not ~600 ms
+        long start = System.currentTimeMillis();
+        List<News> news = NewsMerge.fanOut(executor, requests, 10, 2_000);
+        long time = System.currentTimeMillis() - start;
+        log.debug("Fan-out: {} ms.", time);
+        Assertions.assertEquals(6, news.size(), "Wrong size!");
+        Assertions.assertTrue(time < 550, "Not concurrent? " + time + " ms");
+
+        // One with error, one too slow
+        requests.add(() -> {
+            throw new RuntimeException("Error: 500");
+        });
+        requests.add(() -> {
+            Thread.sleep(5_000);
+            return news("slow", 100);
+        });
+        start = System.currentTimeMillis();
+        news = NewsMerge.fanOut(executor, requests, 10, 1_000);
+        time = System.currentTimeMillis() - start;
+        Assertions.assertEquals(6, news.size(), "Wrong partial result");
+        Assertions.assertTrue(time < 2_000, "Timeout ignored? " + time + " ms");
+
+        executor.shutdownNow();
+        log.debug("Done.");
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+
+/**
+ * Testing of NewsPager against a local server.
+ *
+ * @author Diego Duarte Diaz
+ */
+public final class TestNewsPager {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(TestNewsPager.class);
+
+    /**
+     * The local server.
+     */
+    private MockWebServer server;
+
+    /**
+     * The scheduler.
+     */
+    private NewsApiScheduler scheduler;
+
+    /**
+     * The pager to test.
+     */
+    private NewsPager pager;
+
+    @BeforeEach
+    public void start() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        scheduler = new NewsApiScheduler(new NewApiService("the-key", null, server.url("/v2/").toString()), 10, 1000, 0);
+        pager = new NewsPager(scheduler, "general", 100);
+    }
+
+    @AfterEach
+    public void stop() throws IOException {
+        pager.close();
+        scheduler.shutdown();
+        server.shutdown();
+    }
+
+    /**
+     * @return the recorded response of top-headlines (with more pages).
+     */
+    private static MockResponse ok() throws IOException {
+        try (InputStream in = TestNewsPager.class.getResourceAsStream("/fixtures/top-headlines.json")) {
+            final String json = new Buffer().readFrom(in).readString(StandardCharsets.UTF_8)
+                    .replace("\"totalResults\": 100", "\"totalResults\": 1000");
+            return new MockResponse()
+                    .setHeader("Content-Type", "application/json; charset=utf-8")
+                    .setBody(json);
+        }
+    }
+
+    /**
+     * Testing the delivery of each news while the body is read (not at the end of the page).
+     */
+    @Test
+    public void testStreaming() throws Exception {
+        log.debug("Testing ..");
+
+        // The body in ~1 second
+        server.enqueue(ok().throttleBody(10_000, 100, TimeUnit.MILLISECONDS));
+
+        final AtomicLong firstNews = new AtomicLong();
+        final AtomicLong pageLoaded = new AtomicLong();
+        final AtomicInteger news = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(1);
+        Assertions.assertTrue(pager.loadNext(new NewsPager.Callback() {
+            @Override
+            public void onNews(News n) {
+                if (news.getAndIncrement() == 0) {
+                    firstNews.set(System.nanoTime());
+                }
+            }
+
+            @Override
+            public void onPageLoaded(int page, boolean hasMore) {
+                pageLoaded.set(System.nanoTime());
+                latch.countDown();
+            }
+
+            @Override
+            public void onError(RuntimeException exception) {
+                latch.countDown();
+            }
+        }), "Not loading");
+
+        Assertions.assertTrue(latch.await(10, TimeUnit.SECONDS), "Timeout");
+        Assertions.assertTrue(news.get() > 0, "Without news");
+        final long before = TimeUnit.NANOSECONDS.toMillis(pageLoaded.get() - firstNews.get());
+        Assertions.assertTrue(before > 500, "The news at the end of the page: " + before + " ms");
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the callback with error: the pager can load the next page.
+     */
+    @Test
+    public void testCallbackError() throws Exception {
+        log.debug("Testing ..");
+
+        server.enqueue(ok());
+        server.enqueue(ok());
+
+        final CountDownLatch latch = new CountDownLatch(2);
+        final NewsPager.Callback callback = new NewsPager.Callback() {
+            @Override
+            public void onNews(News news) {
+                // Nothing here
+            }
+
+            @Override
+            public void onPageLoaded(int page, boolean hasMore) {
+                latch.countDown();
+                throw new IllegalStateException("The callback failed");
+            }
+
+            @Override
+            public void onError(RuntimeException exception) {
+                // Nothing here
+            }
+        };
+
+        Assertions.assertTrue(pager.loadNext(callback), "Not loading");
+        for (int i = 0; i < 500 && (latch.getCount() == 2 || pager.isLoading()); i++) {
+            Thread.sleep(10);
+        }
+        Assertions.assertFalse(pager.isLoading(), "Still loading after the error");
+        Assertions.assertTrue(pager.loadNext(callback), "The next page wasn't loaded");
+        Assertions.assertTrue(latch.await(10, TimeUnit.SECONDS), "Timeout");
+
+        log.debug("Done.");
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.threeten.bp.Instant;
+import org.threeten.bp.ZoneId;
+import org.threeten.bp.ZonedDateTime;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+
+/**
+ * Testing of NewsSnapshot (and ContractsImplSnapshot).
+ *
+ * @author Diego Duarte Diaz
+ */
+public final class TestNewsSnapshot {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(TestNewsSnapshot.class);
+
+    /**
+     * @return the news (unsorted dates, two zones, nulls, unicode and content != description).
+     */
+    private static List<News> news(final int size) {
+        final Random random = new Random(size);
+        final ZoneId[] zones = {ZoneId.of("-3"), ZoneId.of("America/Santiago")};
+        final List<News> news = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final String description = "La descripción Ñandú " + i;
+            news.add(new News(
+                    "The Title " + i,
+                    "The Source " + (i % 7),
+                    "The Author " + (i % 5),
+                    "https://www.example.com/" + i,
+                    i % 3 == 0 ? null : "https://www.example.com/" + i + ".jpg",
+                    description,
+                    i % 4 == 0 ? "The Content " + i : description,
+                    ZonedDateTime.ofInstant(Instant.ofEpochMilli(1605700800000L - random.nextInt(86_400_000)), zones[i % 2])));
+        }
+        return news;
+    }
+
+    /**
+     * Testing the write and read of the file.
+     */
+    @Test
+    public void testRoundTrip(@TempDir File directory) throws IOException {
+        log.debug("Testing ..");
+
+        final File file = new File(directory, "news.snapshot");
+        Assertions.assertNull(NewsSnapshot.read(file), "Snapshot without file?");
+
+        final List<News> news = news(1000);
+        NewsSnapshot.write(file, new NewsSnapshot(42, news));
+        Assertions.assertArrayEquals(new String[]{"news.snapshot"}, directory.list(), "The temp file wasn't renamed");
+
+        final NewsSnapshot snapshot = NewsSnapshot.read(file);
+        Assertions.assertEquals(42, snapshot.getTimestamp(), "Wrong timestamp");
+        Assertions.assertEquals(news.size(), snapshot.getNews().size(), "Wrong size!");
+        for (int i = 0; i < news.size(); i++) {
+            final News expected = news.get(i);
+            final News n = snapshot.getNews().get(i);
+            Assertions.assertEquals(expected.getLongId(), n.getLongId(), "Wrong id");
+            Assertions.assertEquals(expected.getTitle(), n.getTitle(), "Wrong title");
+            Assertions.assertEquals(expected.getUrlImage(), n.getUrlImage(), "Wrong urlImage");
+            Assertions.assertEquals(expected.getDescription(), n.getDescription(), "Wrong description");
+            Assertions.assertEquals(expected.getContent(), n.getContent(), "Wrong content");
+            Assertions.assertEquals(expected.getPublishedAt(), n.getPublishedAt(), "Wrong publishedAt");
+        }
+
+        // The size of the file
+        log.info("Snapshot of {} news: {} bytes.", news.size(), file.length());
+
+        // Replace the snapshot
+        NewsSnapshot.write(file, new NewsSnapshot(43, news.subList(0, 10)));
+        Assertions.assertEquals(10, NewsSnapshot.read(file).getNews().size(), "Wrong size!");
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the concurrent writes of the same file: always a complete snapshot.
+     */
+    @Test
+    public void testConcurrentWrite(@TempDir File directory) throws Exception {
+        log.debug("Testing ..");
+
+        final File file = new File(directory, "news.snapshot");
+        final List<News> news = news(500);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Future<?>> writes = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            final int size = 100 + (i % 4) * 100;
+            writes.add(executor.submit(() -> {
+                NewsSnapshot.write(file, new NewsSnapshot(size, news.subList(0, size)));
+                return null;
+            }));
+        }
+        for (int i = 0; i < 200; i++) {
+            final NewsSnapshot snapshot = NewsSnapshot.read(file);
+            if (snapshot != null) {
+                Assertions.assertEquals(snapshot.getTimestamp(), snapshot.getNews().size(), "Mixed snapshot");
+            }
+        }
+        for (Future<?> write : writes) {
+            write.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        Assertions.assertArrayEquals(new String[]{"news.snapshot"}, directory.list(), "Temp files left");
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the wrong files: version, magic, truncated.
+     */
+    @Test
+    public void testCorrupt(@TempDir File directory) throws IOException {
+        log.debug("Testing ..");
+
+        final byte[] bytes = NewsSnapshot.encode(new NewsSnapshot(42, news(10))).toByteArray();
+
+        // Truncated
+        for (int length : new int[]{0, 3, 20, bytes.length / 2, bytes.length - 1}) {
+            Assertions.assertThrows(IOException.class, () -> NewsSnapshot.decode(ByteBuffer.wrap(bytes, 0, length)), "Truncated " + length);
+        }
+
+        // Other version
+        final byte[] version = bytes.clone();
+        version[7] = 99;
+        Assertions.assertThrows(IOException.class, () -> NewsSnapshot.decode(ByteBuffer.wrap(version)), "Wrong version");
+
+        // Not a snapshot (the old cache file)
+        final File file = new File(directory, "news.snapshot");
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            out.writeLong(42);
+            out.writeInt(1);
+        }
+        Assertions.assertThrows(IOException.class, () -> NewsSnapshot.read(file), "Wrong magic");
+
+        // Zigzag
+        for (long value : new long[]{0, 1, -1, 86_400_000, -86_400_000, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            Assertions.assertEquals(value, NewsSnapshot.unzigzag(NewsSnapshot.zigzag(value)), "Wrong zigzag");
+        }
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the snapshot after the retrieveNews.
+     */
+    @Test
+    public void testContractsImplSnapshot(@TempDir File directory) throws Exception {
+        log.debug("Testing ..");
+
+        final List<News> news = news(30);
+        final Contracts source = new Contracts() {
+            @Override
+            public List<News> retrieveNews(Integer size) {
+                return news.subList(0, size);
+            }
+
+            @Override
+            public void saveNews(News n) {
+                // Nothing here
+            }
+        };
+
+        final File file = new File(directory, "news.snapshot");
+        ContractsImplSnapshot contracts = new ContractsImplSnapshot(source, file);
+        Assertions.assertTrue(contracts.restore().isEmpty(), "Snapshot without retrieve?");
+
+        contracts.retrieveNews(20);
+        contracts.flush();
+
+        // The next launch (in background, as the activity)
+        List<News> restored = new ContractsImplSnapshot(source, file).restoreAsync().get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(20, restored.size(), "Wrong size!");
+        Assertions.assertEquals(news.get(19).getLongId(), restored.get(19).getLongId(), "Wrong id");
+
+        log.debug("Done.");
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.threeten.bp.ZoneId;
+import org.threeten.bp.ZonedDateTime;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+
+/**
+ * Testing of NewsSync
+ * @author Diego Duarte Diaz
+ */
+public final class TestNewsSync {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(TestNewsSync.class);
+
+    /**
+     * The remote: the news from..to, failing the first calls.
+     */
+    private static final class Remote implements Contracts {
+
+        private final List<Long> calls = new CopyOnWriteArrayList<>();
+        private volatile int failures;
+        private volatile int from;
+        private volatile int to;
+        private volatile CountDownLatch gate;
+
+        @Override
+        public List<News> retrieveNews(Integer size) {
+            calls.add(System.nanoTime());
+            if (gate != null) {
+                try {
+                    gate.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failures > 0) {
+                failures--;
+                throw new RuntimeException("Error: 500 --> Internal Server Error");
+            }
+            final List<News> news = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                news.add(new News("The Title " + i, "The Source", "The Author", "https://url", null,
+                        "The Description", "The Content", ZonedDateTime.now(ZoneId.of("-3"))));
+            }
+            return news;
+        }
+
+        @Override
+        public void saveNews(News news) {
+            // Nothing here
+        }
+    }
+
+    /**
+     * The local: count the batches.
+     */
+    private static final class Local extends ContractsImpl {
+
+        private int batches;
+
+        @Override
+        public void saveNews(List<News> news) {
+            batches++;
+            super.saveNews(news);
+        }
+    }
+
+    /**
+     * Testing the sync of the deltas in one batch.
+     */
+    @Test
+    public void testSync() {
+        log.debug("Testing ..");
+
+        final Remote remote = new Remote();
+        final Local local = new Local();
+        final NewsSync sync = new NewsSync(remote, local, 10);
+
+        remote.to = 10;
+        Assertions.assertEquals(10, sync.sync(), "Wrong number of news synced");
+        Assertions.assertEquals(1, local.batches, "Not one batch");
+
+        // Only the new ones
+        remote.from = 5;
+        remote.to = 15;
+        Assertions.assertEquals(5, sync.sync(), "Wrong number of news synced");
+        Assertions.assertEquals(2, local.batches, "Not one batch");
+        Assertions.assertEquals(15, local.retrieveNews(15).size(), "Wrong number of news saved");
+
+        // Nothing new, nothing written
+        Assertions.assertEquals(0, sync.sync(), "Wrong number of news synced");
+        Assertions.assertEquals(2, local.batches, "Empty batch written");
+
+        // The error to the caller
+        remote.failures = 1;
+        Assertions.assertThrows(RuntimeException.class, sync::sync);
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the ids synced remembered: only the last ones.
+     */
+    @Test
+    public void testSynced() {
+        log.debug("Testing ..");
+
+        final Remote remote = new Remote();
+        final NewsSync sync = new NewsSync(remote, new Local(), 2);
+
+        for (int i = 0; i < 10; i++) {
+            remote.from = i * 5;
+            remote.to = remote.from + 5;
+            Assertions.assertEquals(5, sync.sync(), "Wrong number of news synced");
+        }
+        Assertions.assertEquals(2 * NewsSync.SYNCED_SYNCS, sync.getSynced(), "Synced not bounded");
+
+        // The last ones still rejected
+        remote.from = 45;
+        remote.to = 50;
+        Assertions.assertEquals(0, sync.sync(), "Wrong number of news synced");
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the request while other is running: the same sync.
+     */
+    @Test
+    public void testRequest() throws Exception {
+        log.debug("Testing ..");
+
+        final Remote remote = new Remote();
+        remote.to = 3;
+        remote.gate = new CountDownLatch(1);
+        final NewsSync sync = new NewsSync(remote, new Local(), 10);
+
+        final CompletableFuture<Integer> first = sync.request();
+        Assertions.assertSame(first, sync.request(), "Sync not joined");
+        Assertions.assertSame(first, sync.request(), "Sync not joined");
+
+        remote.gate.countDown();
+        Assertions.assertEquals(3, first.get(5, TimeUnit.SECONDS), "Wrong number of news synced");
+        Assertions.assertEquals(1, remote.calls.size(), "Duplicated syncs");
+
+        // Finished: a new one
+        final CompletableFuture<Integer> second = sync.request();
+        Assertions.assertNotSame(first, second, "Finished sync returned");
+        Assertions.assertEquals(0, second.get(5, TimeUnit.SECONDS), "Wrong number of news synced");
+        Assertions.assertEquals(2, remote.calls.size(), "Sync not requested");
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the exponential backoff.
+     */
+    @Test
+    public void testBackoff() throws InterruptedException {
+        log.debug("Testing ..");
+
+        final NewsSync values = new NewsSync(new Remote(), new Local(), 10, 1000, 30_000, 3_600_000);
+        Assertions.assertEquals(30_000, values.backoff(1), "Wrong backoff");
+        Assertions.assertEquals(60_000, values.backoff(2), "Wrong backoff");
+        Assertions.assertEquals(240_000, values.backoff(4), "Wrong backoff");
+        Assertions.assertEquals(3_600_000, values.backoff(10), "Wrong max backoff");
+        Assertions.assertEquals(3_600_000, values.backoff(100), "Wrong max backoff (overflow)");
+
+        // Two errors (wait 20 and 40 ms) and then ok (wait the interval)
+        final Remote remote = new Remote();
+        remote.failures = 2;
+        remote.to = 3;
+        final Local local = new Local();
+        final NewsSync sync = new NewsSync(remote, local, 10, 60_000, 20, 1000);
+        sync.start();
+        for (int i = 0; i < 200 && local.batches == 0; i++) {
+            Thread.sleep(10);
+        }
+        sync.stop();
+
+        Assertions.assertEquals(3, remote.calls.size(), "Wrong number of calls");
+        Assertions.assertEquals(1, local.batches, "Not synced");
+        Assertions.assertEquals(0, sync.getFailures(), "Failures not reset");
+        final long first = TimeUnit.NANOSECONDS.toMillis(remote.calls.get(1) - remote.calls.get(0));
+        final long second = TimeUnit.NANOSECONDS.toMillis(remote.calls.get(2) - remote.calls.get(1));
+        log.debug("Waits: {} ms and {} ms.", first, second);
+        Assertions.assertTrue(first >= 20, "Wrong first wait: " + first);
+        Assertions.assertTrue(second >= 40, "Wrong second wait: " + second);
+
+        log.debug("Done.");
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.threeten.bp.ZoneId;
+import org.threeten.bp.ZonedDateTime;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+
+/**
+ * Testing of NewsTopK
+ * @author Diego Duarte Diaz
+ */
+public final class TestNewsTopK {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(TestNewsTopK.class);
+
+    /**
+     * The first publishedAt.
+     */
+    private static final ZonedDateTime NOW = ZonedDateTime.now(ZoneId.of("-3")).withNano(0);
+
+    /**
+     * The order of the full sort: publishedAt (newest first) and then id.
+     */
+    private static final Comparator<News> NEWEST_FIRST = (n1, n2) -> {
+        int compare = Long.compare(n2.getPublishedAtMillis(), n1.getPublishedAtMillis());
+        return compare != 0 ? compare : Long.compare(n1.getLongId(), n2.getLongId());
+    };
+
+    /**
+     * @return the news published the minutes ago.
+     */
+    private static News news(final int number, final int minutes) {
+        return new News("The Title " + number, "The Source", "The Author", null, null,
+                "The Description", "The Content", NOW.minusMinutes(minutes));
+    }
+
+    /**
+     * Testing the selection against the full sort (with ties).
+     */
+    @Test
+    public void testSelect() {
+        log.debug("Testing ..");
+
+        final Random random = new Random(42);
+        final List<News> news = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            // Only 100 different minutes: a lot of ties
+            news.add(news(i, random.nextInt(100)));
+        }
+
+        for (int k : new int[]{1, 2, 10, 30, 999, 1000}) {
+            final List<News> expected = news.stream().sorted(NEWEST_FIRST).limit(k).collect(Collectors.toList());
+            Assertions.assertEquals(expected, NewsTopK.select(news, k), "Wrong selection of " + k);
+        }
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the limits: empty, k=0 and k bigger than the candidates.
+     */
+    @Test
+    public void testLimits() {
+        log.debug("Testing ..");
+
+        final List<News> news = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            news.add(news(i, i));
+        }
+        Collections.shuffle(news, new Random(7));
+
+        Assertions.assertTrue(NewsTopK.select(new ArrayList<>(), 10).isEmpty(), "Empty expected");
+        Assertions.assertTrue(NewsTopK.select(news, 0).isEmpty(), "Empty expected");
+
+        final List<News> all = NewsTopK.select(news, 100);
+        Assertions.assertEquals(5, all.size(), "Wrong size!");
+        for (int i = 0; i < all.size(); i++) {
+            Assertions.assertEquals(NOW.minusMinutes(i), all.get(i).getPublishedAt(), "Wrong order");
+        }
+
+        // The result can be changed
+        all.add(news(5, 5));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new NewsTopK(-1));
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the incremental use: offer, toList (without changes in the heap) and clear.
+     */
+    @Test
+    public void testOffer() {
+        log.debug("Testing ..");
+
+        final NewsTopK topK = new NewsTopK(3);
+        Assertions.assertTrue(topK.offer(news(1, 10)));
+        Assertions.assertTrue(topK.offer(news(2, 20)));
+        Assertions.assertTrue(topK.offer(news(3, 30)));
+        Assertions.assertFalse(topK.offer(news(4, 40)), "Older than all");
+        Assertions.assertTrue(topK.offer(news(5, 5)), "Newer than the oldest");
+
+        Assertions.assertEquals(3, topK.size(), "Wrong size!");
+        Assertions.assertEquals(topK.toList(), topK.toList(), "The heap was changed");
+        Assertions.assertEquals(NOW.minusMinutes(5), topK.toList().get(0).getPublishedAt(), "Wrong order");
+        Assertions.assertEquals(NOW.minusMinutes(20), topK.toList().get(2).getPublishedAt(), "Wrong order");
+
+        topK.clear();
+        Assertions.assertEquals(0, topK.size(), "Wrong size!");
+        Assertions.assertTrue(topK.toList().isEmpty(), "Empty expected");
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the selection without duplicated.
+     */
+    @Test
+    public void testSelectDistinct() {
+        log.debug("Testing ..");
+
+        final List<News> news = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            news.add(news(i, i));
+            news.add(news(i, i)); // duplicated
+        }
+
+        final List<News> selected = NewsTopK.selectDistinct(news, 4);
+        Assertions.assertEquals(4, selected.size(), "Wrong size!");
+        Assertions.assertEquals(4, selected.stream().mapToLong(News::getLongId).distinct().count(), "Duplicated!");
+        for (int i = 0; i < selected.size(); i++) {
+            Assertions.assertEquals(NOW.minusMinutes(i), selected.get(i).getPublishedAt(), "Wrong order");
+        }
+
+        log.debug("Done.");
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.threeten.bp.Instant;
+import org.threeten.bp.ZoneId;
+import org.threeten.bp.ZoneOffset;
+import org.threeten.bp.ZonedDateTime;
+import org.threeten.bp.format.DateTimeParseException;
+
+import java.util.Random;
+
+/**
+ * Testing of Dates.
+ *
+ * @author Diego Duarte Diaz
+ */
+public final class TestDates {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(TestDates.class);
+
+    /**
+     * @return the millis using the formatter.
+     */
+    private static long expected(final String text) {
+        return ZonedDateTime.parse(text).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Testing the fast parse against the formatter.
+     */
+    @Test
+    public void testParseIsoMillis() {
+        log.debug("Testing ..");
+
+        final ZoneOffset[] offsets = {ZoneOffset.UTC, ZoneOffset.ofHours(-3), ZoneOffset.ofHoursMinutes(5, 30)};
+        final Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            // 1900 .. 2100
+            final long millis = -2_208_988_800_000L + (long) (random.nextDouble() * 6_311_347_200_000L);
+            final ZoneOffset offset = offsets[i % offsets.length];
+            final Instant instant = Instant.ofEpochMilli(i % 2 == 0 ? millis / 1000 * 1000 : millis);
+            // yyyy-MM-ddTHH:mm:ss[.SSS](Z|+HH:mm)
+            final String text = instant.atOffset(offset).toString();
+            Assertions.assertEquals(expected(text), Dates.parseIsoMillis(text), "Wrong millis: " + text);
+        }
+
+        // NewsApi
+        Assertions.assertEquals(1605960000000L, Dates.parseIsoMillis("2020-11-21T12:00:00Z"), "Wrong millis");
+        Assertions.assertEquals(1605960000123L, Dates.parseIsoMillis("2020-11-21T12:00:00.123456Z"), "Wrong fraction");
+        Assertions.assertEquals(1582977600000L, Dates.parseIsoMillis("2020-02-29T12:00:00Z"), "Wrong leap day");
+
+        // The slow path
+        Assertions.assertEquals(expected("2020-11-21T12:00Z"), Dates.parseIsoMillis("2020-11-21T12:00Z"), "Without seconds");
+        Assertions.assertEquals(expected("2020-11-21T12:00:00-03:00[America/Santiago]"),
+                Dates.parseIsoMillis("2020-11-21T12:00:00-03:00[America/Santiago]"), "With zone");
+
+        // Invalid
+        for (String text : new String[]{"yesterday", "2020-13-01T00:00:00Z", "2019-02-29T00:00:00Z", "2020-11-21T24:00:00Z",
+                "2020-11-21T12:00:00", "2020-11-21T12:00:00+3:00", "2020-11-2xT12:00:00Z"}) {
+            Assertions.assertThrows(DateTimeParseException.class, () -> Dates.parseIsoMillis(text), "Parsed: " + text);
+        }
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the zone to show the dates.
+     */
+    @Test
+    public void testZone() {
+        log.debug("Testing ..");
+
+        Assertions.assertEquals(ZoneId.of("-3"), Dates.getZone(), "Wrong default zone");
+        Assertions.assertSame(Dates.zoneOf("America/Santiago"), Dates.zoneOf("America/Santiago"), "Not cached");
+
+        final long millis = Dates.parseIsoMillis("2020-11-21T12:00:00Z");
+        Assertions.assertEquals(9, Dates.toZoned(millis).getHour(), "Wrong hour");
+        try {
+            Dates.setZone(ZoneOffset.UTC);
+            Assertions.assertEquals(12, Dates.toZoned(millis).getHour(), "Wrong hour");
+            Assertions.assertEquals(millis, Dates.toZoned(millis).toInstant().toEpochMilli(), "Wrong instant");
+        } finally {
+            Dates.setZone(Dates.DEFAULT_ZONE);
+        }
+
+        log.debug("Done.");
+    }
+}
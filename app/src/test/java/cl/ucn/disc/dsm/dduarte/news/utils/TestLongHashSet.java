@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Testing of LongHashSet
+ * @author Diego Duarte Diaz
+ */
+public final class TestLongHashSet {
+
+    /**
+     * The Logger
+     */
+    private static final Logger log = LoggerFactory.getLogger(TestLongHashSet.class);
+
+    /**
+     * Testing against HashSet (with resize, zero and negatives).
+     */
+    @Test
+    public void testAddContains() {
+        log.debug("Testing ..");
+
+        final LongHashSet set = new LongHashSet();
+        final Set<Long> expected = new HashSet<>();
+        final Random random = new Random(42);
+
+        Assertions.assertTrue(set.isEmpty(), "Not empty?");
+        Assertions.assertFalse(set.contains(0), "Contains zero?");
+
+        for (int i = 0; i < 100_000; i++) {
+            // Some repeated values
+            final long value = i % 10 == 0 ? random.nextInt(100) - 50 : random.nextLong();
+            Assertions.assertEquals(expected.add(value), set.add(value), "Wrong add of " + value);
+        }
+        Assertions.assertEquals(expected.size(), set.size(), "Wrong size!");
+        for (Long value : expected) {
+            Assertions.assertTrue(set.contains(value), "Not found: " + value);
+        }
+        Assertions.assertTrue(set.contains(0), "Zero not found");
+        Assertions.assertFalse(set.add(0), "Zero added twice");
+
+        set.clear();
+        Assertions.assertEquals(0, set.size(), "Not empty after clear");
+        Assertions.assertFalse(set.contains(0), "Contains zero after clear");
+
+        log.debug("Done.");
+    }
+
+    /**
+     * Testing the remove against HashSet (small table: long probes).
+     */
+    @Test
+    public void testRemove() {
+        log.debug("Testing ..");
+
+        final LongHashSet set = new LongHashSet();
+        final Set<Long> expected = new HashSet<>();
+        final Random random = new Random(7);
+
+        for (int i = 0; i < 200_000; i++) {
+            // Few values: a lot of add and remove of the same ones
+            final long value = random.nextInt(200) - 100;
+            if (random.nextBoolean()) {
+                Assertions.assertEquals(expected.add(value), set.add(value), "Wrong add of " + value);
+            } else {
+                Assertions.assertEquals(expected.remove(value), set.remove(value), "Wrong remove of " + value);
+            }
+            Assertions.assertEquals(expected.size(), set.size(), "Wrong size!");
+        }
+        for (long value = -100; value < 100; value++) {
+            Assertions.assertEquals(expected.contains(value), set.contains(value), "Wrong contains of " + value);
+        }
+
+        log.debug("Done.");
+    }
+}
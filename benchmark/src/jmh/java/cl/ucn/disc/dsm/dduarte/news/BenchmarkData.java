@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news;
+
+import com.kwabenaberko.newsapilib.models.Article;
+import com.kwabenaberko.newsapilib.models.Source;
+
+import org.threeten.bp.Instant;
+import org.threeten.bp.ZoneId;
+import org.threeten.bp.ZonedDateTime;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+
+/**
+ * The data of the benchmarks (deterministic, same seed).
+ *
+ * @author Diego Duarte Diaz.
+ */
+public final class BenchmarkData {
+
+    /**
+     * The words of the texts.
+     */
+    private static final String[] WORDS = {
+            "government", "market", "economy", "vaccine", "election", "football", "technology", "climate",
+            "health", "science", "court", "energy", "company", "report", "record", "season", "team", "budget"
+    };
+
+    /**
+     * The sources.
+     */
+    private static final String[] SOURCES = {"CNN", "BBC News", "The Guardian", "Reuters", "ESPN", "The Verge"};
+
+    /**
+     * The authors.
+     */
+    private static final String[] AUTHORS = {"Jane Doe", "John Smith", "Associated Press", "Reuters Staff", "Alex Johnson"};
+
+    /**
+     * The first publishedAt.
+     */
+    private static final long EPOCH = 1605700800000L;
+
+    /**
+     * Utility class.
+     */
+    private BenchmarkData() {
+        // Nothing here
+    }
+
+    /**
+     * @return a text of n words.
+     */
+    private static String text(final Random random, final int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Build the articles (as returned by NewsApi).
+     *
+     * @param size the number of articles.
+     * @return the list of articles.
+     */
+    public static List<Article> articles(final int size) {
+        final Random random = new Random(size);
+        final List<Article> articles = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Source source = new Source();
+            source.setName(SOURCES[random.nextInt(SOURCES.length)]);
+
+            Article article = new Article();
+            article.setSource(source);
+            article.setAuthor(AUTHORS[random.nextInt(AUTHORS.length)]);
+            article.setTitle(text(random, 10) + " " + i);
+            article.setDescription(text(random, 30));
+            article.setUrl("https://www.example.com/news/" + i);
+            article.setUrlToImage("https://cdn.example.com/images/" + i + ".jpg");
+            article.setPublishedAt(Instant.ofEpochMilli(EPOCH - random.nextInt(86_400_000)).toString());
+            articles.add(article);
+        }
+        return articles;
+    }
+
+    /**
+     * Build the news (~10% duplicated, unsorted).
+     *
+     * @param size the number of news.
+     * @return the list of news.
+     */
+    public static List<News> news(final int size) {
+        final Random random = new Random(size);
+        final ZoneId zone = ZoneId.of("-3");
+        final List<News> news = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            // The duplicated: same title, source and author
+            final int n = random.nextInt(10) == 0 ? random.nextInt(i + 1) : i;
+            news.add(new News(
+                    "The Title " + n,
+                    SOURCES[n % SOURCES.length],
+                    AUTHORS[n % AUTHORS.length],
+                    "https://www.example.com/news/" + n,
+                    "https://cdn.example.com/images/" + n + ".jpg",
+                    text(random, 30),
+                    text(random, 30),
+                    ZonedDateTime.ofInstant(Instant.ofEpochMilli(EPOCH - random.nextInt(86_400_000)), zone)
+            ));
+        }
+        return news;
+    }
+}
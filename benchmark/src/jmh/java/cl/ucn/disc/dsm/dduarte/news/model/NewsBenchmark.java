@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.threeten.bp.ZoneId;
+import org.threeten.bp.ZonedDateTime;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the News constructor (Validation + xxHash of the id) and the trusted path.
+ *
+ * @author Diego Duarte Diaz.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NewsBenchmark {
+
+    /**
+     * The number of news.
+     */
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private String[] titles;
+    private String[] sources;
+    private String[] authors;
+    private long[] ids;
+    private ZonedDateTime publishedAt;
+
+    @Setup
+    public void setup() {
+        titles = new String[size];
+        sources = new String[size];
+        authors = new String[size];
+        ids = new long[size];
+        for (int i = 0; i < size; i++) {
+            titles[i] = "The Title of the news number " + i;
+            sources[i] = "The Source " + (i % 20);
+            authors[i] = "The Author " + (i % 100);
+            ids[i] = NewsId.of(titles[i], sources[i], authors[i]);
+        }
+        publishedAt = ZonedDateTime.now(ZoneId.of("-3"));
+    }
+
+    /**
+     * Build the size news.
+     */
+    @Benchmark
+    public void construct(final Blackhole blackhole) {
+        for (int i = 0; i < size; i++) {
+            blackhole.consume(new News(titles[i], sources[i], authors[i], "https://url", "https://url/image.jpg",
+                    "The Description", "The Content", publishedAt));
+        }
+    }
+
+    /**
+     * Build the size news from the store (trusted, with the id stored).
+     */
+    @Benchmark
+    public void trusted(final Blackhole blackhole) {
+        for (int i = 0; i < size; i++) {
+            blackhole.consume(News.trusted(ids[i], titles[i], sources[i], authors[i], "https://url", "https://url/image.jpg",
+                    "The Description", "The Content", publishedAt));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import cl.ucn.disc.dsm.dduarte.news.BenchmarkData;
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+
+/**
+ * Throughput of the in memory {@link Contracts} shared by several threads: the synchronized
+ * {@link ContractsImpl} vs the lock-free reads of {@link ContractsImplConcurrent}.
+ * <p>
+ * Run with {@code -t 1}, {@code -t 4} and {@code -t 16} (the threads of retrieveNews) and
+ * {@code -tg 1,1}, {@code -tg 3,1} and {@code -tg 15,1} (readers and writer of readWrite).
+ *
+ * @author Diego Duarte Diaz.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ConcurrentContractsBenchmark {
+
+    /**
+     * The news saved before each iteration.
+     */
+    private static final int SAVED = 1_000;
+
+    /**
+     * The size of the batches of the writer.
+     */
+    private static final int BATCH = 10;
+
+    /**
+     * The implementation.
+     */
+    @Param({"synchronized", "concurrent"})
+    public String impl;
+
+    private List<News> news;
+
+    private Contracts contracts;
+
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        news = BenchmarkData.news(100_000);
+    }
+
+    @Setup(Level.Iteration)
+    public void fill() {
+        contracts = "concurrent".equals(impl) ? new ContractsImplConcurrent() : new ContractsImpl();
+        contracts.saveNews(news.subList(0, SAVED));
+        cursor.set(SAVED);
+    }
+
+    /**
+     * retrieveNews(30) (only readers).
+     */
+    @Benchmark
+    public List<News> retrieveNews() {
+        return contracts.retrieveNews(30);
+    }
+
+    /**
+     * retrieveNews(30) while the writer saves.
+     */
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public List<News> read() {
+        return contracts.retrieveNews(30);
+    }
+
+    /**
+     * saveNews of a batch (the news are saved again when all were used: duplicated).
+     */
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public void write() {
+        final int from = Math.floorMod(cursor.getAndAdd(BATCH), news.size() - BATCH);
+        contracts.saveNews(news.subList(from, from + BATCH));
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import com.kwabenaberko.newsapilib.models.Article;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import cl.ucn.disc.dsm.dduarte.news.BenchmarkData;
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+
+/**
+ * Benchmark of the Article to News conversions of {@link ContractImplNewsApi}.
+ *
+ * @author Diego Duarte Diaz.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConversionBenchmark {
+
+    /**
+     * The number of articles.
+     */
+    @Param({"10", "100", "1000", "100000"})
+    public int size;
+
+    private List<Article> articles;
+
+    /**
+     * The stage in one thread.
+     */
+    private ArticleConverter sequential;
+
+    /**
+     * The stage in the common pool.
+     */
+    private ArticleConverter parallel;
+
+    @Setup
+    public void setup() {
+        articles = BenchmarkData.articles(size);
+        sequential = new ArticleConverter(ForkJoinPool.commonPool(), 1);
+        parallel = new ArticleConverter();
+    }
+
+    /**
+     * The old article2news: the reflection of the debug always built (the baseline).
+     */
+    @Benchmark
+    public void article2newsEager(final Blackhole blackhole) {
+        for (Article article : articles) {
+            blackhole.consume(ToStringBuilder.reflectionToString(article, ToStringStyle.MULTI_LINE_STYLE));
+            blackhole.consume(ContractImplNewsApi.article2news(article));
+        }
+    }
+
+    /**
+     * ContractImplNewsApi.article2news
+     */
+    @Benchmark
+    public void article2news(final Blackhole blackhole) {
+        for (Article article : articles) {
+            blackhole.consume(ContractImplNewsApi.article2news(article));
+        }
+    }
+
+    /**
+     * ArticleConverter.convertAll in one thread.
+     */
+    @Benchmark
+    public List<News> convertAllSequential() {
+        return sequential.convertAll(articles);
+    }
+
+    /**
+     * ArticleConverter.convertAll in parallel chunks.
+     */
+    @Benchmark
+    public List<News> convertAll() {
+        return parallel.convertAll(articles);
+    }
+}
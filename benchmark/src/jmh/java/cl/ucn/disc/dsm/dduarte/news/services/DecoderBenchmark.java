@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import com.google.gson.Gson;
+import com.kwabenaberko.newsapilib.models.Article;
+import com.kwabenaberko.newsapilib.models.response.ArticleResponse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the decoding of the recorded top-headlines (100 articles): Gson vs {@link NewsJsonDecoder}.
+ *
+ * @author Diego Duarte Diaz.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DecoderBenchmark {
+
+    private final Gson gson = new Gson();
+
+    private byte[] payload;
+
+    @Setup
+    public void setup() throws IOException {
+        try (InputStream in = DecoderBenchmark.class.getResourceAsStream("/fixtures/top-headlines.json")) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            payload = out.toByteArray();
+        }
+    }
+
+    /**
+     * Gson to ArticleResponse + article2news.
+     */
+    @Benchmark
+    public void gson(final Blackhole blackhole) {
+        ArticleResponse response = gson.fromJson(new InputStreamReader(new ByteArrayInputStream(payload), StandardCharsets.UTF_8), ArticleResponse.class);
+        for (Article article : response.getArticles()) {
+            blackhole.consume(ContractImplNewsApi.article2news(article));
+        }
+    }
+
+    /**
+     * NewsJsonDecoder.
+     */
+    @Benchmark
+    public int streaming(final Blackhole blackhole) throws IOException {
+        return NewsJsonDecoder.decode(new InputStreamReader(new ByteArrayInputStream(payload), StandardCharsets.UTF_8), blackhole::consume);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import cl.ucn.disc.dsm.dduarte.news.BenchmarkData;
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+import cl.ucn.disc.dsm.dduarte.news.utils.LongHashSet;
+
+/**
+ * Benchmark of the ingest with the rejection of the duplicated (~10%).
+ *
+ * @author Diego Duarte Diaz.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class IngestBenchmark {
+
+    /**
+     * The number of news.
+     */
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private List<News> news;
+
+    private long[] ids;
+
+    @Setup
+    public void setup() {
+        news = BenchmarkData.news(size);
+        ids = new long[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = news.get(i).getLongId();
+        }
+    }
+
+    /**
+     * ContractsImpl.saveNews of all the news.
+     */
+    @Benchmark
+    public Contracts contractsImpl() {
+        Contracts contracts = new ContractsImpl();
+        for (News n : news) {
+            contracts.saveNews(n);
+        }
+        return contracts;
+    }
+
+    /**
+     * The index: LongHashSet.
+     */
+    @Benchmark
+    public int longHashSet() {
+        LongHashSet set = new LongHashSet();
+        for (long id : ids) {
+            set.add(id);
+        }
+        return set.size();
+    }
+
+    /**
+     * The boxed alternative: HashSet of Long.
+     */
+    @Benchmark
+    public int hashSet() {
+        Set<Long> set = new HashSet<>();
+        for (long id : ids) {
+            set.add(id);
+        }
+        return set.size();
+    }
+}
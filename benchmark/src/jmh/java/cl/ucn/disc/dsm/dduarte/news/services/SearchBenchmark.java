@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import cl.ucn.disc.dsm.dduarte.news.BenchmarkData;
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+
+/**
+ * Benchmark of the search in the {@link NewsIndex} (the goal: < 10 ms at 50k news).
+ * <p>
+ * The texts use few words, so each word is in almost all the news (the worst case).
+ *
+ * @author Diego Duarte Diaz.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SearchBenchmark {
+
+    /**
+     * The number of news.
+     */
+    @Param({"50000"})
+    public int size;
+
+    private NewsIndex index;
+
+    @Setup
+    public void setup() {
+        index = new NewsIndex();
+        index.addAll(BenchmarkData.news(size));
+    }
+
+    /**
+     * One word.
+     */
+    @Benchmark
+    public List<News> searchOne() {
+        return index.search("vaccine", 20);
+    }
+
+    /**
+     * Three words.
+     */
+    @Benchmark
+    public List<News> searchThree() {
+        return index.search("vaccine election market", 20);
+    }
+
+    /**
+     * The prefix of two words (search as you type).
+     */
+    @Benchmark
+    public List<News> searchPrefix() {
+        return index.searchPrefix("vacc ele", 20);
+    }
+
+    /**
+     * A word of the title of one news (a short list of postings).
+     */
+    @Benchmark
+    public List<News> searchRare() {
+        return index.search("title 4242", 20);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import cl.ucn.disc.dsm.dduarte.news.BenchmarkData;
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+
+/**
+ * Benchmark of the cold start: read the last news from disk.
+ *
+ * @author Diego Duarte Diaz.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SnapshotBenchmark {
+
+    /**
+     * The number of news.
+     */
+    @Param({"1000"})
+    public int size;
+
+    /**
+     * The NewsSnapshot file.
+     */
+    private File snapshot;
+
+    /**
+     * The NewsCodec file (ContractsImplFile).
+     */
+    private File codec;
+
+    @Setup
+    public void setup() throws IOException {
+        final List<News> news = BenchmarkData.news(size);
+        snapshot = File.createTempFile("news", ".snapshot");
+        NewsSnapshot.write(snapshot, new NewsSnapshot(System.currentTimeMillis(), news));
+        codec = File.createTempFile("news", ".db");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(codec)))) {
+            NewsCodec.writeList(out, news);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        snapshot.delete();
+        codec.delete();
+    }
+
+    /**
+     * NewsSnapshot.read (memory-mapped).
+     */
+    @Benchmark
+    public List<News> snapshot() throws IOException {
+        return NewsSnapshot.read(snapshot).getNews();
+    }
+
+    /**
+     * NewsCodec.readList (DataInputStream).
+     */
+    @Benchmark
+    public List<News> codec() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(codec)))) {
+            return NewsCodec.readList(in);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package cl.ucn.disc.dsm.dduarte.news.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import cl.ucn.disc.dsm.dduarte.news.BenchmarkData;
+import cl.ucn.disc.dsm.dduarte.news.model.News;
+
+/**
+ * Benchmark of the newest k news: full sort + limit vs the bounded heap of {@link NewsTopK}.
+ *
+ * @author Diego Duarte Diaz.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TopKBenchmark {
+
+    /**
+     * The number of candidates (~10% duplicated).
+     */
+    @Param({"1000", "100000"})
+    public int size;
+
+    /**
+     * The number of news to retrieve.
+     */
+    @Param({"30"})
+    public int k;
+
+    private List<News> news;
+
+    @Setup
+    public void setup() {
+        news = BenchmarkData.news(size);
+    }
+
+    /**
+     * The previous implementation: sort all the candidates and take the first k.
+     */
+    @Benchmark
+    public List<News> sortAndLimit() {
+        return news.stream()
+                .sorted(Comparator.comparing(News::getPublishedAt).reversed())
+                .limit(k)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * NewsTopK.select
+     */
+    @Benchmark
+    public List<News> select() {
+        return NewsTopK.select(news, k);
+    }
+
+    /**
+     * NewsTopK.selectDistinct
+     */
+    @Benchmark
+    public List<News> selectDistinct() {
+        return NewsTopK.selectDistinct(news, k);
+    }
+}
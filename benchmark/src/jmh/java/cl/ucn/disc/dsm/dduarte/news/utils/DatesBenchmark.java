@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2020.
+ *
+ * Copyright 2020 Diego Duarte Diaz diego.duarte@alumnos.ucn.cl
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"), to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package cl.ucn.disc.dsm.dduarte.news.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.threeten.bp.ZoneId;
+import org.threeten.bp.ZonedDateTime;
+
+import java.util.concurrent.TimeUnit;
+
+import cl.ucn.disc.dsm.dduarte.news.BenchmarkData;
+
+/**
+ * Benchmark of the parse of the publishedAt of NewsApi.
+ *
+ * @author Diego Duarte Diaz.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DatesBenchmark {
+
+    /**
+     * The number of timestamps.
+     */
+    @Param({"100000"})
+    public int size;
+
+    private String[] timestamps;
+
+    @Setup
+    public void setup() {
+        timestamps = BenchmarkData.articles(size).stream().map(a -> a.getPublishedAt()).toArray(String[]::new);
+    }
+
+    /**
+     * The old way: ZonedDateTime.parse + ZoneId.of by item.
+     */
+    @Benchmark
+    public void zonedDateTimeParse(final Blackhole blackhole) {
+        for (String timestamp : timestamps) {
+            blackhole.consume(ZonedDateTime.parse(timestamp).withZoneSameInstant(ZoneId.of("-3")));
+        }
+    }
+
+    /**
+     * Dates.parseIsoMillis (the millis).
+     */
+    @Benchmark
+    public void parseIsoMillis(final Blackhole blackhole) {
+        for (String timestamp : timestamps) {
+            blackhole.consume(Dates.parseIsoMillis(timestamp));
+        }
+    }
+
+    /**
+     * Dates.parseIsoMillis + Dates.toZoned (what the converter does).
+     */
+    @Benchmark
+    public void parseIsoMillisToZoned(final Blackhole blackhole) {
+        for (String timestamp : timestamps) {
+            blackhole.consume(Dates.toZoned(Dates.parseIsoMillis(timestamp)));
+        }
+    }
+}